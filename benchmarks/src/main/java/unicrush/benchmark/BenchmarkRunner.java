@@ -0,0 +1,68 @@
+package unicrush.benchmark;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The main class of the benchmarks jar.
+ *
+ * <p>
+ * It accepts the same arguments as the JMH runner, e.g. {@code -p size=8,20} or a regular
+ * expression of the benchmarks to run, and always adds the GC profiler, so the allocation rate of
+ * every benchmark is reported besides the time.</p>
+ *
+ * <pre>
+ *     java -jar target/benchmarks.jar EngineBenchmark.process -p colors=3
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class BenchmarkRunner {
+
+    //CHECKSTYLE:OFF
+    private BenchmarkRunner() {
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Runs the benchmarks with the GC profiler.
+     *
+     * @param args the command line arguments of the JMH runner
+     * @throws RunnerException if the benchmarks fail to run
+     * @throws CommandLineOptionException if the arguments are malformed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
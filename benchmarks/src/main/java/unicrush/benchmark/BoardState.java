@@ -0,0 +1,132 @@
+package unicrush.benchmark;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import unicrush.model.Level;
+import unicrush.model.LevelManager;
+import unicrush.model.RefillSource;
+
+/**
+ * Class holding a level and its manager for the benchmarks.
+ *
+ * <p>
+ * The board is generated from a fixed seed with the given size, density of walls and number of
+ * colors. The new candies and the boards of the {@code fillBoard} benchmark come from the same
+ * number of colors, so fewer colors mean more matches and longer chain reactions. Besides the
+ * generated board, the state keeps copies of the board after the first pop and after the whole
+ * processing, so the benchmarks can restore the cells they need with a single array copy.</p>
+ *
+ * @author Szalontai Jordán
+ */
+@State(Scope.Thread)
+public class BoardState {
+
+    //CHECKSTYLE:OFF
+    private static final long SEED = 42L;
+
+    @Param({"5", "8", "12", "20"})
+    public int size;
+
+    @Param({"0.0", "0.15"})
+    public double wallDensity;
+
+    @Param({"3", "6"})
+    public int colors;
+
+    Level level;
+    LevelManager manager;
+    RefillSource candies;
+    Integer[][] walls;
+    Integer[][] swapCoors;
+
+    byte[] start;
+    byte[] popped;
+    byte[] processed;
+    //CHECKSTYLE:ON
+
+    /**
+     * Generates the board and the copies of it.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Integer[]> wallList = new ArrayList<>();
+        StringBuilder template = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                template.append(';');
+            }
+            for (int j = 0; j < size; j++) {
+                if (random.nextDouble() < wallDensity) {
+                    wallList.add(new Integer[]{i, j});
+                    template.append(Level.toChar(Level.WALL));
+                } else {
+                    template.append(Level.toChar((byte) (1 + random.nextInt(colors))));
+                }
+            }
+        }
+
+        walls = wallList.toArray(new Integer[wallList.size()][]);
+        level = new Level.Builder(0, size)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(walls)
+                .fillBoard(template.toString())
+                .build();
+        manager = new LevelManager(level, () -> (byte) (1 + random.nextInt(colors)));
+
+        SplittableRandom fillRandom = random.split();
+        candies = () -> (byte) (1 + fillRandom.nextInt(colors));
+
+        start = level.getCells().clone();
+        manager.popAllMarked();
+        popped = level.getCells().clone();
+
+        level.setCells(start);
+        manager.process();
+        processed = level.getCells().clone();
+        swapCoors = findSwap();
+    }
+
+    //CHECKSTYLE:OFF
+    private Integer[][] findSwap() {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j + 1 < size; j++) {
+                Integer[][] coors = {{i, j}, {i, j + 1}};
+
+                if (manager.canSwap(coors)) {
+                    return coors;
+                }
+            }
+        }
+        throw new IllegalStateException("No cells to swap on the board.");
+    }
+    //CHECKSTYLE:ON
+}
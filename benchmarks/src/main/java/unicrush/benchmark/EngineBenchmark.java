@@ -0,0 +1,103 @@
+package unicrush.benchmark;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import unicrush.model.Level;
+
+/**
+ * Benchmarks of the hot paths of the game engine.
+ *
+ * <p>
+ * The benchmarks that change the board restore the cells they start from with
+ * {@code Level.setCells}, the cost of this copy alone is measured by {@link #baselineCopy}.</p>
+ *
+ * @author Szalontai Jordán
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Benchmark
+    public void baselineCopy(BoardState state) {
+        state.level.setCells(state.start);
+    }
+
+    @Benchmark
+    public int process(BoardState state) {
+        state.level.setCells(state.start);
+        return state.manager.process();
+    }
+
+    @Benchmark
+    public boolean popAllMarked(BoardState state) {
+        state.level.setCells(state.start);
+        return state.manager.popAllMarked();
+    }
+
+    @Benchmark
+    public int applyGravity(BoardState state) {
+        state.level.setCells(state.popped);
+        return state.manager.applyGravity();
+    }
+
+    @Benchmark
+    public String lookForMoves(BoardState state) {
+        state.level.setCells(state.processed);
+        return state.manager.lookForMoves();
+    }
+
+    @Benchmark
+    public boolean swap(BoardState state) {
+        // swapping back leaves the board as it was
+        return state.manager.swap(state.swapCoors) && state.manager.swap(state.swapCoors);
+    }
+
+    @Benchmark
+    public byte[] reset(BoardState state) {
+        state.manager.reset();
+        return state.level.getCells();
+    }
+
+    @Benchmark
+    public String getBoardState(BoardState state) {
+        return state.level.getBoardState();
+    }
+
+    @Benchmark
+    public Level fillBoard(BoardState state) {
+        return new Level.Builder(0, state.size)
+                .putWalls(state.walls)
+                .fillBoard(state.candies)
+                .build();
+    }
+}
@@ -26,9 +26,11 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -42,8 +44,9 @@ import org.slf4j.LoggerFactory;
 import unicrush.model.CandyCrushGame;
 import unicrush.model.Validator;
 import unicrush.model.db.DAOFactory;
+import unicrush.model.db.LeaderboardEntry;
 import unicrush.model.db.ScoreDAO;
-import unicrush.model.db.ScoreEntity;
+import unicrush.model.db.ScoreWriter;
 import unicrush.model.db.UserDAO;
 import unicrush.model.db.UserEntity;
 
@@ -54,6 +57,11 @@ import unicrush.model.db.UserEntity;
  */
 public class EndGameSceneController implements Initializable {
 
+    /**
+     * The number of the best scores of the level that are shown in the table.
+     */
+    public static final int LEADERBOARD_SIZE = 10;
+
     //CHECKSTYLE:OFF
     private static final Logger LOGGER = LoggerFactory.getLogger(EndGameSceneController.class);
 
@@ -101,35 +109,50 @@ public class EndGameSceneController implements Initializable {
         LOGGER.info("Setting message to {}", message);
         gratText.setText(message);
 
-        LOGGER.info("Creating DAO-s");
-        ScoreDAO scoreDao = DAOFactory.getInstance().createScoreDAO();
-        UserDAO userDao = DAOFactory.getInstance().createUserDAO();
+        currentScore.setText("Your score is " + game.getPlayerScore() + "");
 
-        setLabelInfo(userDao, scoreDao);
+        // the database is not touched on the FX thread, the score is saved in the background
+        Task<List<LeaderboardEntry>> saver = saveScore();
+        saver.setOnSucceeded(event -> setHighScoreTable(saver.getValue()));
+        saver.setOnFailed(event -> LOGGER.error(saver.getException().getMessage()));
+        new Thread(saver, "DB Score Thread").start();
     }
 
     //CHECKSTYLE:OFF
-    private void setLabelInfo(UserDAO userDao, ScoreDAO scoreDao) {
-        // this shold not be null, since we were playing the game before
-        UserEntity user = userDao.findByName(game.getPlayerName()).get(0);
-
-        LOGGER.info("User that was playing: {}", user.getUsername());
-        int userId = user.getId();
-        int levelId = this.game.getCurrentLevel().getID();
-        int userScore = this.game.getPlayerScore();
-
-        LOGGER.info("Setting current score and highscore");
-        ScoreEntity found = scoreDao.find(userId, levelId);
-
-        if (found == null) {
-            scoreDao.create(userId, levelId, userScore);
-            currentScore.setText("Your score is " + userScore + "");
-        } else if (validator.isNewHighScore(found, userScore)) {
-            currentScore.setText("New high score: " + userScore + "");
-            scoreDao.update(userId, levelId, userScore);
-        }
-
-        setHighScoreTable(scoreDao.findAll());
+    private Task<List<LeaderboardEntry>> saveScore() {
+        String playerName = game.getPlayerName();
+        int levelId = game.getCurrentLevel().getID();
+        int userScore = game.getPlayerScore();
+
+        return new Task<List<LeaderboardEntry>>() {
+
+            @Override
+            protected List<LeaderboardEntry> call() throws Exception {
+                LOGGER.info("Creating DAO-s");
+                ScoreDAO scoreDao = DAOFactory.getInstance().createScoreDAO();
+                UserDAO userDao = DAOFactory.getInstance().createUserDAO();
+                ScoreWriter scoreWriter = DAOFactory.getInstance().getScoreWriter();
+
+                // this shold not be null, since we were playing the game before
+                UserEntity user = userDao.findByName(playerName).get(0);
+
+                LOGGER.info("User that was playing: {}", user.getUsername());
+                int userId = user.getId();
+
+                // the table is read before the score is queued, so a flush cannot mix it in, and
+                // the writer saves the score later together with the other scores of its batch
+                List<LeaderboardEntry> saved = scoreDao.findTopScores(levelId, LEADERBOARD_SIZE);
+                scoreWriter.submit(userId, levelId, userScore);
+
+                LOGGER.info("Setting current score and highscore");
+                if (validator.isNewHighScore(saved, LEADERBOARD_SIZE, userId, userScore)) {
+                    Platform.runLater(() -> currentScore.setText("New high score: " + userScore + ""));
+                }
+                return LeaderboardEntry.withEntry(saved,
+                        new LeaderboardEntry(user.getUsername(), userId, levelId, userScore),
+                        LEADERBOARD_SIZE);
+            }
+        };
     }
     //CHECKSTYLE:ON
 
@@ -137,22 +160,17 @@ public class EndGameSceneController implements Initializable {
      * Updates the {@code TableView} in the scene with the data fetched from the
      * database.
      *
-     * @param scores the list containing entities from the database
+     * @param scores the list containing the best entries of the leaderboard of the level, that
+     * already hold the names of the users
      */
-    public void setHighScoreTable(List<ScoreEntity> scores) {
+    public void setHighScoreTable(List<LeaderboardEntry> scores) {
         if (scores == null || scores.isEmpty()) {
             return;
         }
 
-        UserDAO userDao = DAOFactory.getInstance().createUserDAO();
-        List<ScoreRow> data = new ArrayList<>();
-        scores.stream()
-                .forEach(score -> {
-                    final String userName = userDao.get(score.getUserId()).getUsername();
-                    final Integer levelId = score.getLevelId();
-                    final Integer newScore = score.getScore();
-                    data.add(new ScoreRow(userName, levelId, newScore));
-                });
+        List<ScoreRow> data = new ArrayList<>(scores.size());
+        scores.forEach(score -> data.add(new ScoreRow(score.getUsername(), score.getLevelId(),
+                score.getScore())));
 
         scoreTable.setItems(FXCollections.observableArrayList(data));
     }
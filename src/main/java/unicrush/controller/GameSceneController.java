@@ -21,9 +21,9 @@ package unicrush.controller;
  * <http://www.gnu.org/licenses/gpl-3.0.html>.
  * #L%
  */
-import unicrush.model.LevelManager;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ResourceBundle;
@@ -35,6 +35,8 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
 
+import unicrush.model.BoardSnapshot;
+import unicrush.model.CascadeStep;
 import unicrush.model.CandyCrushGame;
 import unicrush.model.Level;
 import unicrush.model.Validator;
@@ -87,8 +89,6 @@ public class GameSceneController implements Initializable {
             this.game.startCurrentLevel();
             validator = Validator.getInstance();
 
-            preprocessLevelWith(game.getManager());
-
             gridManager = new GridManager(mainGrid, game);
             gridManager.firstRender();
             gridManager.enableButtonClicks(event -> onCandySelect(event));
@@ -104,36 +104,12 @@ public class GameSceneController implements Initializable {
         }
     }
 
-    /**
-     * Preprocesses the current level of the game with the given {@code LevelManager}.
-     *
-     * <p>
-     * This is necessary, because in the generation of the board is random, so there can be a board
-     * state where three or more candies match in a row or column.</p>
-     *
-     * @param levelManager the manager that processes the level.
-     * @return {@code true} if no problems happened during the processing, {@code false} if
-     * resetting the level was required
-     */
-    public boolean preprocessLevelWith(LevelManager levelManager) {
-        LOGGER.info("Preprocessing current level ...");
-        int iterations = game.getManager().process();
-
-        if (validator.isMaxIterations(iterations)) {
-            LOGGER.info("Maximum iteration, reseting level ...");
-            game.getManager().reset();
-            game.getManager().process();
-
-            return false;
-        }
-        return true;
-    }
-
     /**
      * Ends the game on the current level and switches to the end-game scene.
      */
     public void endGame() {
         LOGGER.warn("Ending game...");
+        LOGGER.debug("Replay of the game:\n{}", game.getReplay());
         gridManager.getPopThread().interrupt();
         gridManager.getSuggestionTimer().cancel();
         gridManager.getSuggestionTimer().purge();
@@ -181,35 +157,28 @@ public class GameSceneController implements Initializable {
     private void swapSelectedCandies(String template) {
         Integer[][] coors = Level.createCoordinates(template);
         LOGGER.debug("CREATED COORS: {}", Arrays.toString(coors));
-        game.getManager().swap(coors);
-        gridManager.renderBoardState(game.getCurrentLevel().getBoardState());
+        if (game.getManager().canSwap(coors)) {
+            gridManager.renderSwapped(coors);
+        }
 
-        List<String> boardStates = game.getManager().processWithState();
+        List<CascadeStep> steps = game.play(coors);
 
         int boardIterations = game.getManager().getIterations();
         int boardSum = game.getManager().getSum();
 
-        showCanges(coors, boardIterations, boardSum, boardStates);
+        showCanges(boardIterations, boardSum, steps);
     }
 
-    private void showCanges(Integer[][] coors, int iterations, int sum, List<String> boardStates) {
+    private void showCanges(int iterations, int sum, List<CascadeStep> steps) {
         LOGGER.info("Showing changes ...");
+        List<BoardSnapshot> boardStates = new ArrayList<>();
 
-        if (validator.isNoIterations(iterations)) {
-            boardStates.add(game.getCurrentLevel().getBoardState());
-            game.getManager().swap(coors);
-            boardStates.add(game.getCurrentLevel().getBoardState());
+        // the candies were swapped back, or the level was reset
+        if (validator.isNoIterations(iterations) || validator.isMaxIterations(iterations)) {
+            boardStates.add(game.getCurrentLevel().getSnapshot());
         }
 
-        if (validator.isMaxIterations(iterations)) {
-            LOGGER.info("Maximum iterations, reseting level ...");
-            game.getManager().reset();
-            boardStates.add(game.getCurrentLevel().getBoardState());
-        }
-
-        game.addToScore(sum);
-
-        gridManager.startPopTask(boardStates).setOnSucceeded(event -> onPopSuccess(sum));
+        gridManager.startPopTask(steps, boardStates).setOnSucceeded(event -> onPopSuccess(sum));
         gridManager.eraseSelectedCandies();
     }
 
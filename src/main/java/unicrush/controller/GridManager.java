@@ -34,6 +34,9 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.RowConstraints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import unicrush.model.BoardSnapshot;
+import unicrush.model.CandyState;
+import unicrush.model.CascadeStep;
 import unicrush.model.CandyCrushGame;
 import unicrush.model.Level;
 import unicrush.model.Validator;
@@ -47,6 +50,7 @@ public final class GridManager {
 
     //CHECKSTYLE:OFF
     private static final Logger LOGGER = LoggerFactory.getLogger(GridManager.class);
+    private static final byte EMPTY = (byte) CandyState.EMPTY.ordinal();
 
     private Thread popThread;
     private Timer suggestionTimer;
@@ -55,7 +59,7 @@ public final class GridManager {
     private CandyCrushGame game;
     private Validator validator;
 
-    private String suggestedArea;
+    private int[] suggestedArea;
     private String[] selectedCandies;
     //CHECKSTYLE:ON
     
@@ -70,7 +74,7 @@ public final class GridManager {
         this.game = game;
         this.validator = Validator.getInstance();
 
-        this.suggestedArea = "";
+        this.suggestedArea = new int[0];
         this.selectedCandies = new String[2];
 
         this.suggestionTimer = new Timer("Suggestion Timer", true);
@@ -80,22 +84,28 @@ public final class GridManager {
     }
 
     /**
-     * Starts a JavaFX {@code Task} that renders all board states to the grid with a small delay.
+     * Starts a JavaFX {@code Task} that renders all changes to the grid with a small delay.
+     *
+     * <p>
+     * Each step is rendered in two frames, first the popped cells, then the cells that changed
+     * because of the gravity, so only the changed nodes are touched. The board states are rendered
+     * after the steps, each after a delay.</p>
      *
      * <p>
      * When the task is finished it hides the previous suggestion if there was any</p>
      *
-     * @param boardStates the list with the given board state strings
+     * @param steps the list with the changes of each iteration
+     * @param boardStates the list with the board snapshots to render after the steps
      * @return the {@code Task} that started
      *
-     * @see #renderAll(java.util.List)
+     * @see #renderAll(java.util.List, java.util.List)
      * @see #hideSuggestionMarkers()
      */
-    public Task<Integer> startPopTask(List<String> boardStates) {
+    public Task<Integer> startPopTask(List<CascadeStep> steps, List<BoardSnapshot> boardStates) {
         Task<Integer> popTask = new Task<Integer>() {
             @Override
             protected Integer call() {
-                return renderAll(boardStates);
+                return renderAll(steps, boardStates);
             }
         };
         popThread = new Thread(popTask);
@@ -111,14 +121,13 @@ public final class GridManager {
         suggestionTimer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                LOGGER.debug("Highlighted coordinates: {}", suggestedArea);
-                suggestedArea = game.getManager().getAvailableMoves();
+                suggestedArea = game.getManager().findMoveArea();
+                LOGGER.debug("Highlighted cells: {}", suggestedArea.length / 2);
 
-                if (validator.isEmptyString(suggestedArea)) {
+                if (suggestedArea.length == 0) {
                     LOGGER.warn("No more possible steps, reseting...");
-                    game.getManager().reset();
-                    game.getManager().process();
-                    renderBoardState(game.getCurrentLevel().getBoardState());
+                    game.shuffle();
+                    renderBoardState(game.getCurrentLevel().getSnapshot());
                 } else {
                     showSuggestionMarkers();
                 }
@@ -132,12 +141,12 @@ public final class GridManager {
      */
     public void firstRender() {
         setMainGridDimensions();
-        String[] state = game.getCurrentLevel().getBoardState().split(";");
+        BoardSnapshot state = game.getCurrentLevel().getSnapshot();
 
-        for (int i = 0; i < state.length; i++) {
-            for (int j = 0; j < state[i].length(); j++) {
+        for (int i = 0; i < state.getBoardSize(); i++) {
+            for (int j = 0; j < state.getBoardSize(); j++) {
                 Button b = new Button();
-                String url = Main.getCandyImageURL(state[i].charAt(j));
+                String url = Main.getCandyImageURL(Level.toChar(state.get(i, j)));
 
                 if (!validator.isEmptyString(url)) {
                     b.setStyle("-fx-background-image:" + url);
@@ -155,36 +164,86 @@ public final class GridManager {
      * Sets the background of all the nodes in the grid to the corresponding image of the candy in
      * the board.
      *
-     * @param boardState the board state we render
+     * @param boardState the board snapshot we render
      */
-    public void renderBoardState(String boardState) {
-        String[] state = boardState.split(";");
-
-        for (int i = 0; i < state.length; i++) {
-            for (int j = 0; j < state[i].length(); j++) {
-                String url = Main.getCandyImageURL(state[i].charAt(j));
-
-                if (!validator.isEmptyString(url)) {
-                    getNode(i, j).setStyle("-fx-background-image: " + url);
-                }
+    public void renderBoardState(BoardSnapshot boardState) {
+        for (int i = 0; i < boardState.getBoardSize(); i++) {
+            for (int j = 0; j < boardState.getBoardSize(); j++) {
+                renderCell(i, j, boardState.get(i, j));
             }
         }
     }
 
+    /**
+     * Sets the background of the nodes at the given coordinates to the image of the candy at the
+     * other coordinate, so the grid shows the candies swapped before the board is changed.
+     *
+     * @param coors the coordinates of the two cells we would like to swap
+     */
+    public void renderSwapped(Integer[][] coors) {
+        Level level = game.getCurrentLevel();
+
+        renderCell(coors[0][0], coors[0][1], level.getCell(coors[1][0], coors[1][1]));
+        renderCell(coors[1][0], coors[1][1], level.getCell(coors[0][0], coors[0][1]));
+    }
+
     //CHECKSTYLE:OFF
-    private Integer renderAll(List<String> boardStates) {
-        int stateIndex = 0;
-
-        while (stateIndex < boardStates.size()) {
-            renderBoardState(boardStates.get(stateIndex++));
-            try {
-                Thread.sleep(Main.POP_INTERVAL);
-            } catch (InterruptedException ex) {
-                LOGGER.error("RENDERING INTERRUPTED");
-                LOGGER.error(ex.getMessage());
-            }
+    private Integer renderAll(List<CascadeStep> steps, List<BoardSnapshot> boardStates) {
+        int frames = 0;
+
+        for (CascadeStep step : steps) {
+            renderPops(step);
+            pause();
+            renderFalls(step);
+            pause();
+            frames += 2;
+        }
+        for (BoardSnapshot boardState : boardStates) {
+            pause();
+            renderBoardState(boardState);
+            frames++;
+        }
+        return frames;
+    }
+
+    private void renderPops(CascadeStep step) {
+        int size = step.getBoardSize();
+
+        for (int k = 0; k < step.getPoppedCount(); k++) {
+            int index = step.getPopped(k);
+            renderCell(index / size, index % size, EMPTY);
+        }
+    }
+
+    private void renderFalls(CascadeStep step) {
+        int size = step.getBoardSize();
+
+        // every cell a candy fell from is either the target of another fall or a spawned cell
+        for (int k = 0; k < step.getFallCount(); k++) {
+            int index = step.getFallTo(k);
+            renderCell(index / size, index % size, step.getFallColor(k));
+        }
+        for (int k = 0; k < step.getSpawnCount(); k++) {
+            int index = step.getSpawned(k);
+            renderCell(index / size, index % size, step.getSpawnColor(k));
+        }
+    }
+
+    private void renderCell(int i, int j, byte code) {
+        String url = Main.getCandyImageURL(Level.toChar(code));
+
+        if (!validator.isEmptyString(url)) {
+            getNode(i, j).setStyle("-fx-background-image: " + url);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(Main.POP_INTERVAL);
+        } catch (InterruptedException ex) {
+            LOGGER.error("RENDERING INTERRUPTED");
+            LOGGER.error(ex.getMessage());
         }
-        return stateIndex;
     }
 
     private void setMainGridDimensions() {
@@ -204,13 +263,11 @@ public final class GridManager {
      * they will appear with a green background.
      */
     public synchronized void showSuggestionMarkers() {
-        if (!validator.isEmptyString(suggestedArea)) {
+        if (suggestedArea.length != 0) {
             LOGGER.debug("Showing help markers");
 
-            Integer[][] coordinates = Level.createCoordinates(suggestedArea);
-
-            for (Integer[] coor : coordinates) {
-                getNode(coor[0], coor[1]).getStyleClass().add("highlighted");
+            for (int k = 0; k < suggestedArea.length; k += 2) {
+                getNode(suggestedArea[k], suggestedArea[k + 1]).getStyleClass().add("highlighted");
             }
         }
     }
@@ -220,13 +277,11 @@ public final class GridManager {
      * so they will not appear with a green background.
      */
     public synchronized void hideSuggestionMarkers() {
-        if (!validator.isEmptyString(suggestedArea)) {
+        if (suggestedArea.length != 0) {
             LOGGER.debug("Hiding help markers");
 
-            Integer[][] coordinates = Level.createCoordinates(suggestedArea);
-
-            for (Integer[] coor : coordinates) {
-                getNode(coor[0], coor[1]).getStyleClass().removeAll("highlighted");
+            for (int k = 0; k < suggestedArea.length; k += 2) {
+                getNode(suggestedArea[k], suggestedArea[k + 1]).getStyleClass().removeAll("highlighted");
             }
         }
     }
@@ -306,7 +361,7 @@ public final class GridManager {
         return suggestionTimer;
     }
 
-    public String getSuggestedArea() {
+    public int[] getSuggestedArea() {
         return suggestedArea;
     }
     //CHECKSTYLE:ON
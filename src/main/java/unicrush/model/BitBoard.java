@@ -0,0 +1,305 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Class representing the board of a {@code Level} with one bitmask per {@code CandyState}.
+ *
+ * <p>
+ * The cell in row <em>i</em> and column <em>j</em> is the bit <em>i * 8 + j</em> of a
+ * {@code long}, so this representation can only hold boards that are not larger than
+ * {@value #MAX_SIZE}x{@value #MAX_SIZE}. Walls have their own mask, and a cell is in exactly one of
+ * the masks.</p>
+ *
+ * <p>
+ * Because every mask is a single word, finding all the sequences of three or more
+ * {@code Candy} instances is done by shifting and intersecting the masks, instead of walking the
+ * board cell by cell:</p>
+ *
+ * <pre>
+ *
+ *  BitBoard board = new BitBoard(level.getBoardSize());
+ *  board.load(level);
+ *
+ *  long matches;
+ *  while ((matches = board.findMatches()) != 0) {
+ *      board.pop(matches);
+ *      board.applyGravity();
+ *  }
+ *
+ *  board.store(level);
+ * </pre>
+ *
+ * <p>
+ * Just like in the {@link LevelManager}, {@code CandyState.EMPTY} counts as a color when looking
+ * for matches.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class BitBoard {
+
+    /**
+     * The maximum size of a board that can be represented by a {@code BitBoard}.
+     */
+    public static final int MAX_SIZE = 8;
+
+    //CHECKSTYLE:OFF
+    private static final int STRIDE = 8;
+    private static final long COLUMN_0 = 0x0101010101010101L;
+    private static final long RUN_START = 0x3F3F3F3F3F3F3F3FL;
+    private static final CandyState[] STATES = CandyState.values();
+    private static final int EMPTY = CandyState.EMPTY.ordinal();
+
+    private final int boardSize;
+    private final long[] masks;
+    private long walls;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs an empty bitboard for a board with the given size.
+     *
+     * @param boardSize the size of the board
+     * @throws IllegalArgumentException if the size is larger than {@value #MAX_SIZE}
+     */
+    public BitBoard(int boardSize) throws IllegalArgumentException {
+        if (boardSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Board is too large for a bitboard.");
+        }
+        this.boardSize = boardSize;
+        this.masks = new long[STATES.length];
+    }
+
+    /**
+     * Fills up the masks based on the current board of the given level.
+     *
+     * @param level the level we read, it must have the same size as this bitboard
+     */
+    public void load(Level level) {
+        walls = 0L;
+        for (int k = 0; k < masks.length; k++) {
+            masks[k] = 0L;
+        }
+
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                byte code = level.getCell(i, j);
+
+                if (code == Level.WALL) {
+                    walls |= bit(i, j);
+                } else {
+                    masks[code] |= bit(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the masks back to the board of the given level.
+     *
+     * <p>
+     * Walls are not written, since they never change. The cells are written straight into the
+     * board of the level, so only the cells that changed update its Zobrist hash, and just like the
+     * changes of a {@link LevelManager}, this does not increase the modification count.</p>
+     *
+     * @param level the level we write, it must have the same size as this bitboard
+     */
+    public void store(Level level) {
+        boolean transposed = level.isTransposed();
+
+        for (int k = 0; k < masks.length; k++) {
+            for (long bits = masks[k]; bits != 0; bits &= bits - 1) {
+                int position = Long.numberOfTrailingZeros(bits);
+                int i = position / STRIDE;
+                int j = position % STRIDE;
+
+                level.putCell(transposed ? j * boardSize + i : i * boardSize + j, (byte) k);
+            }
+        }
+    }
+
+    /**
+     * Returns a mask of all the cells that are in a row or column of three or more cells with the
+     * same state.
+     *
+     * @return the mask of the matching cells, {@code 0} if there are not any
+     */
+    public long findMatches() {
+        long matches = 0L;
+
+        for (long mask : masks) {
+            long horizontal = mask & (mask >>> 1) & (mask >>> 2) & RUN_START;
+            long vertical = mask & (mask >>> STRIDE) & (mask >>> 2 * STRIDE);
+
+            matches |= horizontal | (horizontal << 1) | (horizontal << 2);
+            matches |= vertical | (vertical << STRIDE) | (vertical << 2 * STRIDE);
+        }
+        return matches;
+    }
+
+    /**
+     * Sets the state of all cells in the given mask to {@code CandyState.EMPTY}.
+     *
+     * @param matches the mask of the cells we pop, usually the result of {@link #findMatches()}
+     */
+    public void pop(long matches) {
+        for (int k = 0; k < masks.length; k++) {
+            masks[k] &= ~matches;
+        }
+        masks[EMPTY] |= matches;
+    }
+
+    /**
+     * All cells "fall" when there's empty space in their column, and the empty cells on the top are
+     * filled up from the given source.
+     *
+     * <p>
+     * Candies fall through the walls, just like in {@link LevelManager#applyGravity()}.</p>
+     *
+     * @param refillSource the source of the new color states
+     * @return the number of empty cells that were filled up
+     */
+    public int applyGravity(RefillSource refillSource) {
+        int empties = Long.bitCount(masks[EMPTY]);
+
+        if (empties == 0) {
+            return 0;
+        }
+
+        for (int j = 0; j < boardSize; j++) {
+            long column = COLUMN_0 << j;
+
+            if ((masks[EMPTY] & column) == 0) {
+                continue;
+            }
+
+            int write = boardSize - 1;
+            for (int read = boardSize - 1; read >= 0; read--) {
+                long from = bit(read, j);
+
+                if ((walls & from) != 0 || (masks[EMPTY] & from) != 0) {
+                    continue;
+                }
+                while ((walls & bit(write, j)) != 0) {
+                    write--;
+                }
+                move(from, bit(write, j));
+                write--;
+            }
+
+            for (; write >= 0; write--) {
+                long to = bit(write, j);
+
+                if ((walls & to) == 0) {
+                    clear(to);
+                    masks[refillSource.next()] |= to;
+                }
+            }
+        }
+        return empties;
+    }
+
+    /**
+     * Swaps the states of two cells.
+     *
+     * @param i1 the row index of the first cell
+     * @param j1 the column index of the first cell
+     * @param i2 the row index of the second cell
+     * @param j2 the column index of the second cell
+     * @throws IllegalArgumentException if there is a wall in one of the cells
+     */
+    public void swap(int i1, int j1, int i2, int j2) throws IllegalArgumentException {
+        CandyState first = get(i1, j1);
+        CandyState second = get(i2, j2);
+
+        if (first == null || second == null) {
+            throw new IllegalArgumentException(
+                    "Cannot swap a wall: " + i1 + "," + j1 + ";" + i2 + "," + j2);
+        }
+
+        clear(bit(i1, j1));
+        clear(bit(i2, j2));
+        masks[second.ordinal()] |= bit(i1, j1);
+        masks[first.ordinal()] |= bit(i2, j2);
+    }
+
+    /**
+     * Returns the state of a cell.
+     *
+     * @param i row index
+     * @param j column index
+     * @return the state of the cell, {@code null} if there is a wall in the cell
+     */
+    public CandyState get(int i, int j) {
+        long bit = bit(i, j);
+
+        for (int k = 0; k < masks.length; k++) {
+            if ((masks[k] & bit) != 0) {
+                return STATES[k];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the mask of the cells with the given state.
+     *
+     * @param state the state we are interested in
+     * @return the mask of the cells in this state
+     */
+    public long getMask(CandyState state) {
+        return masks[state.ordinal()];
+    }
+
+    //CHECKSTYLE:OFF
+    private void move(long from, long to) {
+        if (from == to) {
+            return;
+        }
+        for (int k = 0; k < masks.length; k++) {
+            if ((masks[k] & from) != 0) {
+                clear(to);
+                masks[k] = (masks[k] & ~from) | to;
+                return;
+            }
+        }
+    }
+
+    private void clear(long bit) {
+        for (int k = 0; k < masks.length; k++) {
+            masks[k] &= ~bit;
+        }
+    }
+
+    public static long bit(int i, int j) {
+        return 1L << (i * STRIDE + j);
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public long getWalls() {
+        return walls;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,246 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Class representing the state of a board at a given moment.
+ *
+ * <p>
+ * A snapshot is immutable, so it can be shared instead of copied. The cells are packed into
+ * {@code long} words, four bits per cell, holding the same codes as {@link Level#getCell(int, int)}
+ * does, so comparing or hashing two snapshots only touches a few words.</p>
+ *
+ * <pre>
+ *
+ *  BoardSnapshot before = level.getSnapshot();
+ *
+ *  // ...
+ *
+ *  if (!before.equals(level.getSnapshot())) {
+ *      // the board has changed
+ *  }
+ * </pre>
+ *
+ * <p>
+ * The {@code toString()} of a snapshot is the same template string that
+ * {@link Level#getBoardState()} returns, and {@link #parse(String)} reads such a string, so
+ * snapshots can be used where template strings were used before. For storing or sending a
+ * snapshot use {@link #toByteArray()} and {@link #fromByteArray(byte[])}.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class BoardSnapshot {
+
+    //CHECKSTYLE:OFF
+    private static final int BITS = 4;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final int STATE_COUNT = CandyState.values().length;
+
+    private final int boardSize;
+    private final long[] words;
+
+    private BoardSnapshot(int boardSize, long[] words) {
+        this.boardSize = boardSize;
+        this.words = words;
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Takes a snapshot of the board of the given level.
+     *
+     * <p>
+     * Just like {@link Level#getBoardState()}, the snapshot follows the transposition of the
+     * level.</p>
+     *
+     * @param level the level we take the snapshot of
+     * @return the snapshot of the current board
+     */
+    public static BoardSnapshot of(Level level) {
+        int size = level.getBoardSize();
+        byte[] cells = level.getCells();
+        boolean transposed = level.isTransposed();
+        long[] words = new long[wordsFor(size)];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                byte code = transposed ? cells[j * size + i] : cells[i * size + j];
+                int index = i * size + j;
+
+                words[index / CELLS_PER_WORD] |= (code & MASK) << (index % CELLS_PER_WORD * BITS);
+            }
+        }
+        return new BoardSnapshot(size, words);
+    }
+
+    /**
+     * Creates a snapshot from a board state template string.
+     *
+     * @param boardState the template string, like the ones {@link Level#getBoardState()} returns
+     * @return the snapshot of the board described by the template
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public static BoardSnapshot parse(String boardState) throws IllegalArgumentException {
+        String[] rows = boardState.split(";");
+        int size = rows.length;
+        long[] words = new long[wordsFor(size)];
+
+        for (int i = 0; i < size; i++) {
+            if (rows[i].length() != size) {
+                throw new IllegalArgumentException("Malformed board state string");
+            }
+            for (int j = 0; j < size; j++) {
+                int index = i * size + j;
+                long code = Level.toCode(rows[i].charAt(j)) & MASK;
+
+                words[index / CELLS_PER_WORD] |= code << (index % CELLS_PER_WORD * BITS);
+            }
+        }
+        return new BoardSnapshot(size, words);
+    }
+
+    /**
+     * Creates a snapshot from its binary form.
+     *
+     * <p>
+     * Every cell must hold the code of a {@code CandyState} or a wall, and the unused bits of the
+     * last word must be zero, so a corrupt snapshot is rejected here instead of failing later in
+     * {@link #get(int, int)} or {@link #toString()}.</p>
+     *
+     * @param bytes the bytes produced by {@link #toByteArray()}
+     * @return the snapshot that was serialised
+     * @throws IllegalArgumentException if the bytes do not describe a snapshot
+     */
+    public static BoardSnapshot fromByteArray(byte[] bytes) throws IllegalArgumentException {
+        if (bytes.length < Integer.BYTES) {
+            throw new IllegalArgumentException("Malformed board snapshot");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int size = buffer.getInt();
+        // the length is computed in long, so a corrupt size cannot overflow it
+        long cells = (long) size * size;
+        long length = Integer.BYTES + (cells + CELLS_PER_WORD - 1) / CELLS_PER_WORD * Long.BYTES;
+
+        if (size < 0 || bytes.length != length) {
+            throw new IllegalArgumentException("Malformed board snapshot");
+        }
+
+        long[] words = new long[(int) ((length - Integer.BYTES) / Long.BYTES)];
+        buffer.asLongBuffer().get(words);
+
+        for (int k = 0; k < words.length; k++) {
+            for (int n = 0; n < CELLS_PER_WORD; n++) {
+                long code = words[k] >>> (n * BITS) & MASK;
+                boolean valid = (long) k * CELLS_PER_WORD + n < cells
+                        ? code < STATE_COUNT || code == MASK
+                        : code == 0;
+
+                if (!valid) {
+                    throw new IllegalArgumentException("Malformed board snapshot");
+                }
+            }
+        }
+        return new BoardSnapshot(size, words);
+    }
+
+    /**
+     * Returns the binary form of this snapshot, the size of the board followed by the packed
+     * cells.
+     *
+     * @return the bytes that describe this snapshot
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + words.length * Long.BYTES);
+        buffer.putInt(boardSize);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    /**
+     * Returns the code of a cell.
+     *
+     * @param i row index
+     * @param j column index
+     * @return the ordinal of the {@code CandyState} in the cell, or {@link Level#WALL}
+     */
+    public byte get(int i, int j) {
+        int index = i * boardSize + j;
+        byte code = (byte) (words[index / CELLS_PER_WORD] >>> (index % CELLS_PER_WORD * BITS) & MASK);
+
+        return code == MASK ? Level.WALL : code;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * boardSize + Arrays.hashCode(words);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final BoardSnapshot other = (BoardSnapshot) obj;
+        return this.boardSize == other.boardSize && Arrays.equals(this.words, other.words);
+    }
+
+    /**
+     * Returns the board state template string of this snapshot.
+     *
+     * @return the same string as {@link Level#getBoardState()} returned when the snapshot was
+     * taken
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(boardSize * (boardSize + 1));
+
+        for (int i = 0; i < boardSize; i++) {
+            if (i > 0) {
+                sb.append(';');
+            }
+            for (int j = 0; j < boardSize; j++) {
+                sb.append(Level.toChar(get(i, j)));
+            }
+        }
+        return sb.toString();
+    }
+
+    //CHECKSTYLE:OFF
+    private static int wordsFor(int size) {
+        return (size * size + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+    //CHECKSTYLE:ON
+}
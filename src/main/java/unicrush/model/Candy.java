@@ -22,25 +22,35 @@ package unicrush.model;
  * #L%
  */
 import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Class representing a {@code Candy} on the board.
  *
  * <p>
- * All candies can be in a state, and all candies can be marked to pop by the {@link LevelManager}.
- * If we would like to represent a popped candy, just set its state to {@code CandyState.EMPTY}</p>
+ * All candies are in a state, and a popped candy is represented by the {@code CandyState.EMPTY}
+ * state. Candies are immutable flyweights, there is exactly one instance per state, so they can be
+ * compared by reference. The marks of the candies to pop are kept by the {@link LevelManager} in a
+ * bitset of the board.</p>
  *
  * @author Szalontai Jordán
  */
-public class Candy implements Comparable<Candy> {
+public final class Candy implements Comparable<Candy> {
 
     //CHECKSTYLE:OFF
-    private CandyState state;
-    private boolean markedForPop;
+    private static final CandyState[] STATES = CandyState.values();
+    private static final Candy[] CANDIES = createCandies();
+
+    private final CandyState state;
+
+    private Candy(CandyState state) {
+        this.state = state;
+    }
     //CHECKSTYLE:ON
 
     /**
-     * Constructs a {@code Candy} with the given state.
+     * Returns the {@code Candy} with the given state.
      *
      * <p>
      * If the object is a colored candy, the parameter should be one of the
@@ -62,20 +72,11 @@ public class Candy implements Comparable<Candy> {
      *   Candy.State.EMPTY
      * </pre>
      *
-     * @param state the given state the candy will have
+     * @param state the state of the candy
+     * @return the shared instance of the state
      */
-    public Candy(CandyState state) {
-        this.state = state;
-    }
-
-    /**
-     * Constructs a {@code Candy} as a copy of the given parameter.
-     *
-     * @param src the source that we are copying
-     */
-    public Candy(Candy src) {
-        this.state = src.state;
-        this.markedForPop = false;
+    public static Candy of(CandyState state) {
+        return CANDIES[state.ordinal()];
     }
 
     /**
@@ -116,8 +117,18 @@ public class Candy implements Comparable<Candy> {
      * @return a {@code Candy.State} representing the state of the candy
      */
     public static CandyState getRandomColorState() {
-        return Arrays.asList(CandyState.values())
-                .get((int) (Math.random() * (CandyState.values().length - 1)) + 1);
+        return STATES[ThreadLocalRandom.current().nextInt(1, STATES.length)];
+    }
+
+    /**
+     * Returns a random color state generated by the given generator.
+     *
+     * @param random the generator, so the result can be reproduced with the same seed
+     * @return a {@code Candy.State} representing the state of the candy
+     * @see #getRandomColorState()
+     */
+    public static CandyState getRandomColorState(SplittableRandom random) {
+        return STATES[random.nextInt(1, STATES.length)];
     }
 
     /**
@@ -173,20 +184,17 @@ public class Candy implements Comparable<Candy> {
     }
 
     //CHECKSTYLE:OFF
-    public CandyState getState() {
-        return state;
-    }
+    private static Candy[] createCandies() {
+        Candy[] candies = new Candy[STATES.length];
 
-    public boolean isMarkedForPop() {
-        return markedForPop;
-    }
-
-    public void setState(CandyState state) {
-        this.state = state;
+        for (CandyState state : STATES) {
+            candies[state.ordinal()] = new Candy(state);
+        }
+        return candies;
     }
 
-    public void setMarkedForPop(boolean markedForPop) {
-        this.markedForPop = markedForPop;
+    public CandyState getState() {
+        return state;
     }
     //CHECKSTYLE:ON
 
@@ -46,7 +46,17 @@ import unicrush.model.db.LevelEntity;
  *
  * <p>
  * Starting a level includes resetting the user's score, setting the current index to the index of
- * this level, and setting the manager to manage this level instance.</p>
+ * this level, and setting the manager to manage this level instance from its initial board.</p>
+ *
+ * <p>
+ * The moves of the player should be made by {@code game.play(coors)}, which also records them, so
+ * the game on the current level can be played again by the {@link Replayer}:</p>
+ *
+ * <pre>
+ *  game.play(Level.createCoordinates("0,0;0,1"));
+ *
+ *  Replay replay = game.getReplay();
+ * </pre>
  *
  * @author Szalontai Jordán
  */
@@ -67,6 +77,8 @@ public class CandyCrushGame implements Game {
 
     private List<Level> levels;
     private LevelManager manager;
+    private ReplayRecorder recorder;
+    private Validator validator;
     //CHECKSTYLE:ON
 
     /**
@@ -78,15 +90,92 @@ public class CandyCrushGame implements Game {
         this.levels = new ArrayList<>();
         this.currentLevelIndex = 0;
         this.manager = new LevelManager();
+        this.recorder = new ReplayRecorder();
+        this.validator = Validator.getInstance();
     }
 
     @Override
     public void startLevel(Level level) {
+        startLevel(level, new RandomRefillSource());
+    }
+
+    /**
+     * Starts a level with the given source of the new candies.
+     *
+     * <p>
+     * The board of the level is reset to its initial state, and processed, so there are no matching
+     * {@code Candy} sequences when the player starts. A new recording starts with the seed of the
+     * source.</p>
+     *
+     * @param level the {@code Level} we'd like to start
+     * @param refillSource the source of the new candies
+     */
+    public void startLevel(Level level, RandomRefillSource refillSource) {
         LOGGER.debug("Reseting player score");
         this.playerScore = 0;
         this.currentLevelIndex = levels.indexOf(level);
         this.manager.setLevel(level);
-        LOGGER.info("Started level:\n{}", level.toString());
+        this.manager.setRefillSource(refillSource);
+        this.manager.reset();
+        this.recorder.start(level.getID(), refillSource.getSeed(), level.getSnapshot());
+
+        if (validator.isMaxIterations(manager.process())) {
+            LOGGER.info("Maximum iteration, reseting level ...");
+            manager.reset();
+            manager.process();
+        }
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Started level:\n{}", level.toString());
+        }
+    }
+
+    /**
+     * Makes a move of the player on the current level and records it.
+     *
+     * <p>
+     * The candies are swapped and the level is processed. If nothing popped, the candies are
+     * swapped back, if the processing reached the maximum iterations, the level is reset. The score
+     * of the processing is added to the player's score.</p>
+     *
+     * @param coors the coordinates of the candies to swap
+     * @return the changes of the board in each iteration of the processing
+     */
+    public List<CascadeStep> play(Integer[][] coors) {
+        recorder.recordSwap(coors);
+        manager.swap(coors);
+
+        List<CascadeStep> steps = manager.processWithDeltas();
+
+        if (validator.isNoIterations(manager.getIterations())) {
+            manager.swap(coors);
+        }
+        if (validator.isMaxIterations(manager.getIterations())) {
+            LOGGER.info("Maximum iterations, reseting level ...");
+            manager.reset();
+        }
+
+        addToScore(manager.getSum());
+        return steps;
+    }
+
+    /**
+     * Resets the current level to its initial board and processes it, when there are no more moves
+     * available, and records it.
+     */
+    public void shuffle() {
+        recorder.recordShuffle();
+        manager.reset();
+        manager.process();
+    }
+
+    /**
+     * Returns the recorded game on the current level.
+     *
+     * @return the replay of the game since the current level started
+     */
+    public Replay getReplay() {
+        return recorder.toReplay();
     }
 
     @Override
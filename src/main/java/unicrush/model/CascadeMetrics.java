@@ -0,0 +1,320 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class for collecting the metrics of the cascade processing of every {@code LevelManager}.
+ *
+ * <p>
+ * There is only one instance of this class, it is registered on the platform MBean server when
+ * the class is loaded. The counters are {@code LongAdder} instances, so the managers of parallel
+ * simulations can record their cascades without contending on the same field, and recording does
+ * not allocate any objects.</p>
+ *
+ * <p>
+ * The phases are timed with {@code System.nanoTime()}, if the metrics are disabled the managers
+ * skip the timing as well.</p>
+ *
+ * <p>
+ * The rate of the cascades is counted in a ring of one second buckets, so it follows the current
+ * load instead of flattening toward the average of the whole run. A bucket is recycled without a
+ * lock when its second comes around again, so a cascade recorded at that moment may be lost, the
+ * rate is approximate.</p>
+ *
+ * @author Szalontai Jordán
+ * @see CascadeMetricsMXBean
+ */
+public final class CascadeMetrics implements CascadeMetricsMXBean {
+
+    /**
+     * The JMX object name of the metrics.
+     */
+    public static final String OBJECT_NAME = "unicrush:type=CascadeMetrics";
+
+    /**
+     * The length of the window the rate of the cascades is computed over, in seconds.
+     */
+    public static final int RATE_WINDOW_SECONDS = 10;
+
+    //CHECKSTYLE:OFF
+    private static final Logger LOGGER = LoggerFactory.getLogger(CascadeMetrics.class);
+    private static final CandyState[] STATES = CandyState.values();
+    private static final long SECOND = 1_000_000_000L;
+    private static final CascadeMetrics INSTANCE = register(new CascadeMetrics(true));
+
+    /**
+     * Metrics that are never enabled or registered, for the managers that opt out of recording.
+     */
+    static final CascadeMetrics NONE = new CascadeMetrics(false);
+
+    private final LongAdder cascades = new LongAdder();
+    private final LongAdder[] depths = createAdders(CandyCrushGame.MAX_ITERATION + 1);
+    private final LongAdder[] popped = createAdders(STATES.length);
+    private final LongAdder markNanos = new LongAdder();
+    private final LongAdder popNanos = new LongAdder();
+    private final LongAdder gravityNanos = new LongAdder();
+    private final AtomicLongArray windowCounts = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final AtomicLongArray windowSeconds = new AtomicLongArray(RATE_WINDOW_SECONDS);
+    private final boolean switchable;
+    private volatile boolean enabled;
+    private volatile long startNanos = System.nanoTime();
+
+    private CascadeMetrics(boolean switchable) {
+        this.switchable = switchable;
+        this.enabled = switchable;
+        clearWindow();
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Returns the instance of the metrics.
+     *
+     * @return the metrics the managers record to
+     */
+    public static CascadeMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled && switchable;
+    }
+
+    @Override
+    public long getCascadeCount() {
+        return cascades.sum();
+    }
+
+    @Override
+    public double getCascadesPerSecond() {
+        return getCascadesPerSecond(System.nanoTime());
+    }
+
+    /**
+     * Returns the rate of the cascades at the given time.
+     *
+     * @param now the current value of {@code System.nanoTime()}
+     * @return the cascades per second over the window ending at {@code now}
+     */
+    double getCascadesPerSecond(long now) {
+        long second = Math.floorDiv(now, SECOND);
+        long count = 0;
+
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            long stamp = windowSeconds.get(slot);
+
+            if (stamp > second - RATE_WINDOW_SECONDS && stamp <= second) {
+                count += windowCounts.get(slot);
+            }
+        }
+
+        long span = Math.min(now - startNanos,
+                (RATE_WINDOW_SECONDS - 1) * SECOND + Math.floorMod(now, SECOND));
+        return span > 0 ? count * 1e9 / span : 0;
+    }
+
+    @Override
+    public long[] getDepthHistogram() {
+        long[] histogram = new long[depths.length];
+
+        for (int i = 0; i < depths.length; i++) {
+            histogram[i] = depths[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public Map<String, Long> getPoppedPerColor() {
+        Map<String, Long> perColor = new LinkedHashMap<>();
+
+        for (CandyState state : STATES) {
+            perColor.put(state.name(), popped[state.ordinal()].sum());
+        }
+        return perColor;
+    }
+
+    @Override
+    public long getMarkNanos() {
+        return markNanos.sum();
+    }
+
+    @Override
+    public long getPopNanos() {
+        return popNanos.sum();
+    }
+
+    @Override
+    public long getGravityNanos() {
+        return gravityNanos.sum();
+    }
+
+    @Override
+    public long getMaxIterationHits() {
+        return depths[CandyCrushGame.MAX_ITERATION].sum();
+    }
+
+    @Override
+    public void reset() {
+        cascades.reset();
+        markNanos.reset();
+        popNanos.reset();
+        gravityNanos.reset();
+
+        for (LongAdder depth : depths) {
+            depth.reset();
+        }
+        for (LongAdder color : popped) {
+            color.reset();
+        }
+        clearWindow();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the current time for timing a phase.
+     *
+     * @return the value of {@code System.nanoTime()} if the metrics are enabled, zero otherwise
+     */
+    long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time of a marking and a popping phase that followed each other.
+     *
+     * @param markStart the time the marking started
+     * @param popStart the time the marking ended and the popping started
+     * @param popEnd the time the popping ended
+     */
+    void recordPop(long markStart, long popStart, long popEnd) {
+        if (enabled) {
+            markNanos.add(popStart - markStart);
+            popNanos.add(popEnd - popStart);
+        }
+    }
+
+    /**
+     * Records the popped candies of a color state.
+     *
+     * @param code the ordinal of the {@code CandyState} of the candies
+     * @param count how many candies were popped
+     */
+    void recordPopped(int code, long count) {
+        if (enabled && count > 0) {
+            popped[code].add(count);
+        }
+    }
+
+    /**
+     * Records the time of a gravity phase.
+     *
+     * @param start the time the gravity phase started
+     * @param end the time the gravity phase ended
+     */
+    void recordGravity(long start, long end) {
+        if (enabled) {
+            gravityNanos.add(end - start);
+        }
+    }
+
+    /**
+     * Records a processing run of a manager.
+     *
+     * @param iterations how many iterations the run took
+     */
+    void recordCascade(int iterations) {
+        if (enabled) {
+            recordCascade(iterations, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records a processing run of a manager that ended at the given time.
+     *
+     * @param iterations how many iterations the run took
+     * @param now the value of {@code System.nanoTime()} when the run ended
+     */
+    void recordCascade(int iterations, long now) {
+        depths[Math.min(iterations, CandyCrushGame.MAX_ITERATION)].increment();
+        if (iterations > 0) {
+            cascades.increment();
+
+            long second = Math.floorDiv(now, SECOND);
+            int slot = (int) Math.floorMod(second, (long) RATE_WINDOW_SECONDS);
+            long stamp = windowSeconds.get(slot);
+
+            if (stamp < second && windowSeconds.compareAndSet(slot, stamp, second)) {
+                windowCounts.set(slot, 0);
+            }
+            windowCounts.incrementAndGet(slot);
+        }
+    }
+
+    //CHECKSTYLE:OFF
+    private void clearWindow() {
+        for (int slot = 0; slot < RATE_WINDOW_SECONDS; slot++) {
+            windowSeconds.set(slot, Long.MIN_VALUE);
+            windowCounts.set(slot, 0);
+        }
+    }
+
+    private static LongAdder[] createAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static CascadeMetrics register(CascadeMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException ex) {
+            LOGGER.warn("Could not register the cascade metrics: {}", ex.getMessage());
+        }
+        return metrics;
+    }
+    //CHECKSTYLE:ON
+}
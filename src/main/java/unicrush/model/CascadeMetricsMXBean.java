@@ -0,0 +1,118 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics collected while the {@code LevelManager} processes the
+ * cascades of a level.
+ *
+ * <p>
+ * The metrics are exposed through JMX under the name {@value CascadeMetrics#OBJECT_NAME}, so they
+ * can be watched from JConsole or VisualVM while the game or a simulation is running.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public interface CascadeMetricsMXBean {
+
+    /**
+     * Returns if the metrics are collected.
+     *
+     * @return {@code true} if the managers record their cascades, {@code false} otherwise
+     */
+    public boolean isEnabled();
+
+    /**
+     * Turns the collection of the metrics on or off.
+     *
+     * @param enabled {@code true} if the managers should record their cascades
+     */
+    public void setEnabled(boolean enabled);
+
+    /**
+     * Returns how many cascades were processed, that is how many processing runs popped at least
+     * one candy.
+     *
+     * @return the number of cascades since the last reset
+     */
+    public long getCascadeCount();
+
+    /**
+     * Returns the number of cascades processed per second over the last
+     * {@value CascadeMetrics#RATE_WINDOW_SECONDS} seconds, or since the last reset if that was
+     * more recent.
+     *
+     * @return the current cascades per second
+     */
+    public double getCascadesPerSecond();
+
+    /**
+     * Returns the histogram of the cascade depths, where the element at index {@code i} holds how
+     * many processing runs ended after {@code i} iterations.
+     *
+     * @return the depth histogram of length {@code CandyCrushGame.MAX_ITERATION + 1}
+     */
+    public long[] getDepthHistogram();
+
+    /**
+     * Returns how many candies were popped per color state.
+     *
+     * @return the popped candies mapped by the name of their {@code CandyState}
+     */
+    public Map<String, Long> getPoppedPerColor();
+
+    /**
+     * Returns the time spent marking the candies to pop.
+     *
+     * @return the marking time in nanoseconds
+     */
+    public long getMarkNanos();
+
+    /**
+     * Returns the time spent popping the marked candies.
+     *
+     * @return the popping time in nanoseconds
+     */
+    public long getPopNanos();
+
+    /**
+     * Returns the time spent applying the gravity and refilling the board.
+     *
+     * @return the gravity time in nanoseconds
+     */
+    public long getGravityNanos();
+
+    /**
+     * Returns how many processing runs were stopped by reaching
+     * {@code CandyCrushGame.MAX_ITERATION}.
+     *
+     * @return the number of runs that hit the iteration limit
+     */
+    public long getMaxIterationHits();
+
+    /**
+     * Sets every metric to zero and restarts the clock of the rate.
+     */
+    public void reset();
+}
@@ -0,0 +1,270 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.Arrays;
+
+/**
+ * Class representing the changes of the board during one iteration of the processing.
+ *
+ * <p>
+ * An iteration pops the matching candies, lets the remaining candies fall, and fills the empty
+ * cells on the top with new candies. Instead of the whole board, a step only holds the cells that
+ * changed:</p>
+ * <ul>
+ * <li>the cells that were popped,</li>
+ * <li>the candies that fell, with the cell they fell from and the cell they fell to,</li>
+ * <li>the cells that were filled up, with the state of the new candy.</li>
+ * </ul>
+ *
+ * <p>
+ * Cells are given by their index in the board, in the order {@link Level#getCells()} stores them,
+ * that is <em>i * boardSize + j</em>. The colours are the codes that {@link Level#getCell(int, int)}
+ * returns.</p>
+ *
+ * <pre>
+ *
+ *  for (CascadeStep step : game.getManager().processWithDeltas()) {
+ *      for (int k = 0; k &lt; step.getPoppedCount(); k++) {
+ *          // render the cell at step.getPopped(k) empty
+ *      }
+ *  }
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class CascadeStep {
+
+    //CHECKSTYLE:OFF
+    private static final byte EMPTY = (byte) CandyState.EMPTY.ordinal();
+
+    private final int boardSize;
+    private final int score;
+    private final int[] popped;
+    private final int[] fallFrom;
+    private final int[] fallTo;
+    private final byte[] fallColors;
+    private final int[] spawned;
+    private final byte[] spawnColors;
+
+    private CascadeStep(int boardSize, int score, int[] popped, int[] fallFrom, int[] fallTo,
+            byte[] fallColors, int[] spawned, byte[] spawnColors) {
+        this.boardSize = boardSize;
+        this.score = score;
+        this.popped = popped;
+        this.fallFrom = fallFrom;
+        this.fallTo = fallTo;
+        this.fallColors = fallColors;
+        this.spawned = spawned;
+        this.spawnColors = spawnColors;
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Creates a step from three states of the board.
+     *
+     * <p>
+     * The falls are reconstructed column by column: gravity keeps the order of the candies in a
+     * column, so the <em>n</em>th candy from the bottom before the gravity is the one in the
+     * <em>n</em>th cell that is not a wall from the bottom after it. Every other cell that is not
+     * a wall above them was filled up.</p>
+     *
+     * @param boardSize the size of the board
+     * @param beforePop the cells before the matching candies were popped
+     * @param afterPop the cells after popping and before applying gravity
+     * @param afterGravity the cells after applying gravity and filling up the board
+     * @param score the score of the iteration
+     * @return the changes of the board in this iteration
+     */
+    static CascadeStep between(int boardSize, byte[] beforePop, byte[] afterPop,
+            byte[] afterGravity, int score) {
+        int cells = boardSize * boardSize;
+        int[] popped = new int[cells];
+        int[] fallFrom = new int[cells];
+        int[] fallTo = new int[cells];
+        byte[] fallColors = new byte[cells];
+        int[] spawned = new int[cells];
+        byte[] spawnColors = new byte[cells];
+        int pops = 0;
+        int falls = 0;
+        int spawns = 0;
+
+        for (int k = 0; k < cells; k++) {
+            if (beforePop[k] != afterPop[k]) {
+                popped[pops++] = k;
+            }
+        }
+
+        for (int col = 0; col < boardSize; col++) {
+            int from = cells - boardSize + col;
+            int to = from;
+
+            for (; to >= 0; to -= boardSize) {
+                if (afterGravity[to] == Level.WALL) {
+                    continue;
+                }
+                while (from >= 0 && (afterPop[from] == Level.WALL || afterPop[from] == EMPTY)) {
+                    from -= boardSize;
+                }
+                if (from < 0) {
+                    spawned[spawns] = to;
+                    spawnColors[spawns++] = afterGravity[to];
+                    continue;
+                }
+                if (from != to) {
+                    fallFrom[falls] = from;
+                    fallTo[falls] = to;
+                    fallColors[falls++] = afterPop[from];
+                }
+                from -= boardSize;
+            }
+        }
+
+        return new CascadeStep(boardSize, score,
+                Arrays.copyOf(popped, pops),
+                Arrays.copyOf(fallFrom, falls),
+                Arrays.copyOf(fallTo, falls),
+                Arrays.copyOf(fallColors, falls),
+                Arrays.copyOf(spawned, spawns),
+                Arrays.copyOf(spawnColors, spawns));
+    }
+
+    /**
+     * Applies the changes of this step to the cells of a board, that are in the state the step
+     * started from.
+     *
+     * @param cells the cells of the board in the order {@link Level#getCells()} stores them
+     */
+    public void applyTo(byte[] cells) {
+        for (int index : popped) {
+            cells[index] = EMPTY;
+        }
+        // the falls are listed from the bottom, so a candy never lands on one that did not move yet
+        for (int k = 0; k < fallFrom.length; k++) {
+            cells[fallTo[k]] = fallColors[k];
+            cells[fallFrom[k]] = EMPTY;
+        }
+        for (int k = 0; k < spawned.length; k++) {
+            cells[spawned[k]] = spawnColors[k];
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 59 * hash + this.boardSize;
+        hash = 59 * hash + this.score;
+        hash = 59 * hash + Arrays.hashCode(this.popped);
+        hash = 59 * hash + Arrays.hashCode(this.fallFrom);
+        hash = 59 * hash + Arrays.hashCode(this.fallTo);
+        hash = 59 * hash + Arrays.hashCode(this.fallColors);
+        hash = 59 * hash + Arrays.hashCode(this.spawned);
+        hash = 59 * hash + Arrays.hashCode(this.spawnColors);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final CascadeStep other = (CascadeStep) obj;
+        return this.boardSize == other.boardSize
+                && this.score == other.score
+                && Arrays.equals(this.popped, other.popped)
+                && Arrays.equals(this.fallFrom, other.fallFrom)
+                && Arrays.equals(this.fallTo, other.fallTo)
+                && Arrays.equals(this.fallColors, other.fallColors)
+                && Arrays.equals(this.spawned, other.spawned)
+                && Arrays.equals(this.spawnColors, other.spawnColors);
+    }
+
+    /**
+     * Returns a {@code String} representation of {@code this} instance with the number of popped,
+     * fallen and spawned candies, and the score.
+     *
+     * <pre>
+     * Example:
+     *
+     *     popped: 3, fell: 2, spawned: 3, score: 180
+     * </pre>
+     *
+     * @return the {@code String} representation of {@code this} instance as the example shows above
+     */
+    @Override
+    public String toString() {
+        return "popped: " + popped.length + ", fell: " + fallFrom.length
+                + ", spawned: " + spawned.length + ", score: " + score;
+    }
+
+    //CHECKSTYLE:OFF
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getPoppedCount() {
+        return popped.length;
+    }
+
+    public int getPopped(int k) {
+        return popped[k];
+    }
+
+    public int getFallCount() {
+        return fallFrom.length;
+    }
+
+    public int getFallFrom(int k) {
+        return fallFrom[k];
+    }
+
+    public int getFallTo(int k) {
+        return fallTo[k];
+    }
+
+    public byte getFallColor(int k) {
+        return fallColors[k];
+    }
+
+    public int getSpawnCount() {
+        return spawned.length;
+    }
+
+    public int getSpawned(int k) {
+        return spawned[k];
+    }
+
+    public byte getSpawnColor(int k) {
+        return spawnColors[k];
+    }
+    //CHECKSTYLE:ON
+}
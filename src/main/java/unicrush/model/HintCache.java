@@ -0,0 +1,138 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class for caching the move areas found on the boards, keyed by the Zobrist hash of the board.
+ *
+ * <p>
+ * The cache is bounded, when it is full, the least recently used entry is dropped, so a cache shared
+ * by many games does not grow without a limit.</p>
+ *
+ * <p>
+ * A cache is not thread safe. It may be shared only by the managers that run on one thread, like
+ * the sessions of a worker of the {@link unicrush.model.host.GameHost}.</p>
+ *
+ * <p>
+ * The areas are stored and returned as they are, without a copy, so they must not be changed
+ * after they were put into the cache.</p>
+ *
+ * <pre>
+ *
+ *  int[] area = cache.get(level.getZobristHash());
+ *
+ *  if (area == null) {
+ *      // search the board, then
+ *      cache.put(level.getZobristHash(), area);
+ *  }
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ *
+ * @see Level#getZobristHash()
+ * @see LevelManager#findMoveArea()
+ */
+public final class HintCache {
+
+    //CHECKSTYLE:OFF
+    private final int capacity;
+    private final Map<Long, int[]> areas;
+    private long hits;
+    private long misses;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity the maximum number of boards the cache remembers
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public HintCache(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.areas = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > HintCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the move area found on the board with the given hash.
+     *
+     * @param hash the Zobrist hash of the board
+     * @return the move area, or {@code null} if the board is not in the cache
+     */
+    public int[] get(long hash) {
+        int[] area = areas.get(hash);
+
+        if (area == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return area;
+    }
+
+    /**
+     * Stores the move area found on the board with the given hash.
+     *
+     * @param hash the Zobrist hash of the board
+     * @param area the move area, an empty array if there are not any possible moves
+     */
+    public void put(long hash, int[] area) {
+        areas.put(hash, area);
+    }
+
+    /**
+     * Drops every entry of the cache.
+     */
+    public void clear() {
+        areas.clear();
+    }
+
+    //CHECKSTYLE:OFF
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return areas.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+    //CHECKSTYLE:ON
+}
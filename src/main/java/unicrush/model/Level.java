@@ -22,9 +22,6 @@ package unicrush.model;
  * #L%
  */
 import java.util.Arrays;
-import java.util.stream.Collectors;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Class representing a level of a game.
@@ -54,6 +51,22 @@ import org.slf4j.LoggerFactory;
  * {@link Transposable}, so we can get a candy in a row or a column easily.</p>
  *
  * <p>
+ * Levels with a board not larger than 8x8 can be built {@code withBitBoardEngine()}, in this case
+ * the {@link LevelManager} processes them with a {@link BitBoard} instead of walking the
+ * {@code Candy} instances of the board.</p>
+ *
+ * <p>
+ * The board is stored in a flat {@code byte} array, each cell holding the ordinal of its
+ * {@code CandyState}, or {@link Level#WALL} if there is a wall in it. The {@code Transposable}
+ * methods wrap these codes into {@code Candy} instances, while {@link Level#getCell(int, int)} and
+ * {@link Level#setCell(int, int, byte)} work with the codes directly.</p>
+ *
+ * <p>
+ * The parts of a level that never change, like its ID, walls and initial board, are kept in an
+ * immutable {@link LevelDefinition}, that can be shared by many levels, while each level has its
+ * own board. {@link LevelDefinition#newLevel(long)} makes a new level on the same definition.</p>
+ *
+ * <p>
  * A {@code Level}'s state is a template string, for more information, check
  * {@link Level#getBoardState()}
  *
@@ -61,31 +74,67 @@ import org.slf4j.LoggerFactory;
  */
 public final class Level implements Transposable {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(LevelManager.class);
+    /**
+     * The code of a cell in which there is a wall.
+     */
+    public static final byte WALL = -1;
 
     //CHECKSTYLE:OFF
+    private static final CandyState[] STATES = CandyState.values();
+
+    // the keys of the cells of boards up to 32x32 are precomputed, see zobristKey
+    private static final int ZOBRIST_CODES = 8;
+    private static final int ZOBRIST_CELLS = 32 * 32;
+    private static final long[] ZOBRIST_KEYS = createZobristKeys();
+
+    private final LevelDefinition definition;
     private final int boardSize;
-    private final int scoreToComplete;
-    private final int ID;
-    private final String initialState;
-    private final Integer[][] walls;
-    private final Candy[][] board;
+    private final byte[] cells;
+    private final byte[] initialCells;
 
-    private final int availableSteps;
     private boolean transposed;
+    private int modCount;
+    private long zobristHash;
 
     private Level(Builder builder) {
-        this.ID = builder.ID;
-        this.boardSize = builder.boardSize;
-        this.scoreToComplete = builder.scoreToComplete;
-        this.initialState = builder.initialState;
-        this.walls = builder.walls;
-        this.board = builder.board;
-        this.availableSteps = builder.availableSteps;
+        this(new LevelDefinition(builder.ID, builder.boardSize, builder.scoreToComplete,
+                builder.availableSteps, builder.bitBoardEngine, builder.initialState,
+                builder.initialCells, builder.walls), builder.cells);
         this.transposed = builder.transposed;
     }
     //CHECKSTYLE:ON
 
+    /**
+     * Constructs a level that is played on the given definition, with its own board, that starts
+     * from the initial board of the definition.
+     *
+     * @param definition the definition of the level, that may be shared by other levels
+     * @param cells the cells of the board, they are not copied
+     * @see LevelDefinition#newLevel()
+     */
+    Level(LevelDefinition definition, byte[] cells) {
+        this(definition, cells, definition.initialCells());
+    }
+
+    /**
+     * Constructs a level that is played on the given definition, with its own board, that starts
+     * from its own initial board.
+     *
+     * @param definition the definition of the level, that may be shared by other levels
+     * @param cells the cells of the board, they are not copied
+     * @param initialCells the cells the board is reset to, they are not copied and must not be
+     * changed
+     * @see LevelDefinition#newLevel(long)
+     */
+    Level(LevelDefinition definition, byte[] cells, byte[] initialCells) {
+        this.definition = definition;
+        this.boardSize = definition.getBoardSize();
+        this.cells = cells;
+        this.initialCells = initialCells;
+        this.transposed = false;
+        this.zobristHash = computeZobristHash(cells);
+    }
+
     /**
      * Represents the board with a {@code String} that can be processed easily.
      *
@@ -112,15 +161,31 @@ public final class Level implements Transposable {
      * @return the board state {@code String} produced as mentioned above
      */
     public String getBoardState() {
-        String state = "";
+        StringBuilder state = new StringBuilder(boardSize * (boardSize + 1));
 
         for (int i = 0; i < boardSize; i++) {
+            if (i > 0) {
+                state.append(';');
+            }
             for (int j = 0; j < boardSize; j++) {
-                state += get(i, j) == null ? "x" : get(i, j).toString();
+                state.append(toChar(getCell(i, j)));
             }
-            state += ";";
         }
-        return state.substring(0, state.length() - 1);
+        return state.toString();
+    }
+
+    /**
+     * Takes a packed, immutable snapshot of the board.
+     *
+     * <p>
+     * The snapshot follows the transposition of the level just like {@link #getBoardState()}, and
+     * its {@code toString()} gives the same template string, but it is much cheaper to keep, compare
+     * or hash.</p>
+     *
+     * @return the snapshot of the current board
+     */
+    public BoardSnapshot getSnapshot() {
+        return BoardSnapshot.of(this);
     }
 
     @Override
@@ -128,37 +193,176 @@ public final class Level implements Transposable {
         this.transposed = !this.transposed;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The returned {@code Candy} is the immutable instance of the state of the cell, so use
+     * {@link #set(int, int, unicrush.model.Candy)} to change the board.</p>
+     */
     @Override
     public Candy get(int i, int j) {
-        try {
-            if (transposed) {
-                return board[j][i];
-            } else {
-                return board[i][j];
-            }
-        } catch (ArrayIndexOutOfBoundsException e) {
-            LOGGER.info("CANT GET CANDY");
-            return null;
-        }
+        byte code = getCell(i, j);
+        return code == WALL ? null : Candy.of(STATES[code]);
     }
 
     @Override
     public void set(int i, int j, Candy c) throws ArrayIndexOutOfBoundsException {
-        if (transposed) {
-            board[j][i] = c;
-        } else {
-            board[i][j] = c;
+        setCell(i, j, c == null ? WALL : (byte) c.getState().ordinal());
+    }
+
+    /**
+     * Returns the code of the desired cell of the board.
+     *
+     * @param i row index
+     * @param j column index
+     * @return the ordinal of the {@code CandyState} in the cell, {@link #WALL} if there is a wall in
+     * the cell or we give incorrect row or column indexes
+     */
+    public byte getCell(int i, int j) {
+        if (i < 0 || j < 0 || i >= boardSize || j >= boardSize) {
+            return WALL;
+        }
+        return transposed ? cells[j * boardSize + i] : cells[i * boardSize + j];
+    }
+
+    /**
+     * Sets the code of a cell in the board.
+     *
+     * <p>
+     * Every call increases the modification count of the level, so a {@link LevelManager} knows
+     * that it has to look for matches on the whole board again.</p>
+     *
+     * @param i row index
+     * @param j column index
+     * @param code the ordinal of the new {@code CandyState}, or {@link #WALL}
+     * @throws ArrayIndexOutOfBoundsException if we give incorrect row or column indexes
+     */
+    public void setCell(int i, int j, byte code) throws ArrayIndexOutOfBoundsException {
+        if (i < 0 || j < 0 || i >= boardSize || j >= boardSize) {
+            throw new ArrayIndexOutOfBoundsException(i + "," + j);
+        }
+        putCell(transposed ? j * boardSize + i : i * boardSize + j, code);
+        modCount++;
+    }
+
+    /**
+     * Copies the given cells into the board with a single array copy.
+     *
+     * <p>
+     * The cells are in the order {@link #getCells()} stores them, regardless of the transposition.
+     * Just like {@code setCell}, this increases the modification count of the level.</p>
+     *
+     * @param source the cells we copy, with the same length as the board
+     * @throws IllegalArgumentException if the length of the cells is not the size of the board
+     */
+    public void setCells(byte[] source) throws IllegalArgumentException {
+        if (source.length != cells.length) {
+            throw new IllegalArgumentException("Invalid number of cells: " + source.length);
+        }
+        System.arraycopy(source, 0, cells, 0, cells.length);
+        zobristHash = computeZobristHash(cells);
+        modCount++;
+    }
+
+    /**
+     * Sets the code of a cell by its index in the order {@link #getCells()} stores them, and keeps
+     * the Zobrist hash of the board up to date.
+     *
+     * <p>
+     * It does not increase the modification count, because it is meant for the
+     * {@link LevelManager}, that keeps track of the cells it changes.</p>
+     *
+     * @param index the index of the cell
+     * @param code the ordinal of the new {@code CandyState}, or {@link #WALL}
+     */
+    void putCell(int index, byte code) {
+        byte old = cells[index];
+
+        if (old != code) {
+            zobristHash ^= zobristKey(index, old) ^ zobristKey(index, code);
+            cells[index] = code;
+        }
+    }
+
+    /**
+     * Returns the character that represents the given cell code in a board state string.
+     *
+     * @param code the code of a cell
+     * @return {@code 'x'} for a wall, otherwise the first character of the {@code CandyState}
+     */
+    public static char toChar(byte code) {
+        return code == WALL ? 'x' : STATES[code].toString().charAt(0);
+    }
+
+    /**
+     * Returns the cell code that is represented by the given character in a board state string.
+     *
+     * @param c a character of a board state string
+     * @return the code of the cell
+     * @throws IllegalArgumentException if the character does not represent a cell
+     */
+    public static byte toCode(char c) throws IllegalArgumentException {
+        if (c == 'x') {
+            return WALL;
+        }
+        for (byte code = 0; code < STATES.length; code++) {
+            if (STATES[code].toString().charAt(0) == c) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cell: " + c);
+    }
+
+    //CHECKSTYLE:OFF
+    private static String toBoardState(byte[] cells, int boardSize) {
+        StringBuilder state = new StringBuilder(boardSize * (boardSize + 1));
+
+        for (int k = 0; k < cells.length; k++) {
+            if (k > 0 && k % boardSize == 0) {
+                state.append(';');
+            }
+            state.append(toChar(cells[k]));
         }
+        return state.toString();
     }
 
+    private static long[] createZobristKeys() {
+        long[] keys = new long[ZOBRIST_CELLS * ZOBRIST_CODES];
+
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = mix(k);
+        }
+        return keys;
+    }
+
+    private static long zobristKey(int index, byte code) {
+        // walls are -1, so they get the last key of a cell
+        int k = index * ZOBRIST_CODES + (code & (ZOBRIST_CODES - 1));
+        return index < ZOBRIST_CELLS ? ZOBRIST_KEYS[k] : mix(k);
+    }
+
+    private static long computeZobristHash(byte[] cells) {
+        long hash = 0;
+
+        for (int k = 0; k < cells.length; k++) {
+            hash ^= zobristKey(k, cells[k]);
+        }
+        return hash;
+    }
+
+    // the finalizer of SplitMix64, it gives well distributed keys for consecutive numbers
+    private static long mix(long k) {
+        long z = k * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    //CHECKSTYLE:ON
+
     @Override
     public int hashCode() {
-        int hash = 7;
-        hash = 53 * hash + this.scoreToComplete;
-        hash = 53 * hash + this.ID;
-        hash = 53 * hash + Arrays.deepHashCode(this.walls);
-        hash = 53 * hash + this.availableSteps;
-        return hash;
+        return definition.hashCode();
     }
 
     @Override
@@ -173,19 +377,7 @@ public final class Level implements Transposable {
             return false;
         }
         final Level other = (Level) obj;
-        if (this.scoreToComplete != other.scoreToComplete) {
-            return false;
-        }
-        if (this.ID != other.ID) {
-            return false;
-        }
-        if (this.availableSteps != other.availableSteps) {
-            return false;
-        }
-        if (!Arrays.deepEquals(this.walls, other.walls)) {
-            return false;
-        }
-        return true;
+        return this.definition.equals(other.definition);
     }
 
     /**
@@ -205,12 +397,17 @@ public final class Level implements Transposable {
      */
     @Override
     public String toString() {
-        return Arrays.stream(board)
-                .map(row -> Arrays.toString(row)
-                .replaceAll("null", "x")
-                .replaceAll("E", " ")
-                )
-                .collect(Collectors.joining("\n"));
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < boardSize; i++) {
+            sb.append(i == 0 ? "[" : "\n[");
+            for (int j = 0; j < boardSize; j++) {
+                char c = toChar(cells[i * boardSize + j]);
+                sb.append(j == 0 ? "" : ", ").append(c == 'E' ? ' ' : c);
+            }
+            sb.append(']');
+        }
+        return sb.toString();
     }
 
     /**
@@ -248,40 +445,80 @@ public final class Level implements Transposable {
                 .toArray(Integer[][]::new);
     }
 
+    /**
+     * Returns the Zobrist hash of the board, a 64-bit identity of the position.
+     *
+     * <p>
+     * The hash is kept up to date by every change of the board, so it is available in constant
+     * time. Two boards with the same cells have the same hash, regardless of the transposition of
+     * the level.</p>
+     *
+     * @return the Zobrist hash of the current board
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
     //CHECKSTYLE:OFF
+    public LevelDefinition getDefinition() {
+        return definition;
+    }
+
     public int getBoardSize() {
         return boardSize;
     }
 
     public int getScoreToComplete() {
-        return scoreToComplete;
+        return definition.getScoreToComplete();
     }
 
     public String getInitialState() {
-        return initialState;
+        if (initialCells == definition.initialCells()) {
+            return definition.getInitialState();
+        }
+        return toBoardState(initialCells, boardSize);
     }
 
     public Integer[][] getWalls() {
-        return walls;
+        return definition.getWalls();
     }
 
-    public Candy[][] getBoard() {
-        return board;
+    public byte[] getCells() {
+        return cells;
     }
 
     public int getAvailableSteps() {
-        return availableSteps;
+        return definition.getAvailableSteps();
     }
 
     public boolean isTransposed() {
         return transposed;
     }
 
+    public boolean isBitBoardEngine() {
+        return definition.isBitBoardEngine();
+    }
+
+    public int getModCount() {
+        return modCount;
+    }
+
     public int getID() {
-        return ID;
+        return definition.getID();
     }
     //CHECKSTYLE:ON
 
+    /**
+     * Returns the cells of the initial board of this level without copying them, they must not be
+     * changed. Levels made from a seed start from their own board, the others from the board of
+     * the definition.
+     *
+     * @return the codes of the initial board
+     */
+    byte[] initialCells() {
+        return initialCells;
+    }
+
     /**
      * Class for building a level that follows the builder pattern.
      */
@@ -292,10 +529,12 @@ public final class Level implements Transposable {
         private int ID;
         private int scoreToComplete;
         private String initialState;
+        private byte[] initialCells;
         private Integer[][] walls;
-        private Candy[][] board;
+        private byte[] cells;
 
         private int availableSteps;
+        private boolean bitBoardEngine;
         private boolean transposed;
         //CHECKSTYLE:ON
 
@@ -339,6 +578,20 @@ public final class Level implements Transposable {
             return this;
         }
 
+        /**
+         * Sets that the {@link LevelManager} should process this level with a {@link BitBoard}.
+         *
+         * @return {@code this} so we can chain builder methods
+         * @throws IllegalArgumentException if the board is too large for a {@code BitBoard}
+         */
+        public Builder withBitBoardEngine() throws IllegalArgumentException {
+            if (boardSize > BitBoard.MAX_SIZE) {
+                throw new IllegalArgumentException("Board is too large for the bitboard engine.");
+            }
+            this.bitBoardEngine = true;
+            return this;
+        }
+
         /**
          * Sets the walls array.
          *
@@ -351,7 +604,7 @@ public final class Level implements Transposable {
         }
 
         /**
-         * Sets the board 2D-array with random {@code Candy} instances.
+         * Sets the board with random color states.
          *
          * <p>
          * It is important that you must put walls first into a level, so only
@@ -360,13 +613,37 @@ public final class Level implements Transposable {
          * @return {@code this} so we can chain builder methods
          */
         public Builder fillBoard() {
-            this.board = fillUpRandom();
+            this.cells = fillUpRandom(new RandomRefillSource());
+            return this;
+        }
+
+        /**
+         * Sets the board with random color states generated from the given seed.
+         *
+         * <p>
+         * Two levels filled up with the same seed and the same walls have the same board.</p>
+         *
+         * @param seed the seed of the generator
+         * @return {@code this} so we can chain builder methods
+         */
+        public Builder fillBoard(long seed) {
+            this.cells = fillUpRandom(new RandomRefillSource(seed));
+            return this;
+        }
+
+        /**
+         * Sets the board with the color states supplied by the given source.
+         *
+         * @param source the source of the color states of the cells
+         * @return {@code this} so we can chain builder methods
+         */
+        public Builder fillBoard(RefillSource source) {
+            this.cells = fillUpRandom(source);
             return this;
         }
 
         /**
-         * Sets the board 2D-array with {@code Candy} instances specified in a
-         * template string.
+         * Sets the board with the states specified in a template string.
          *
          * <p>
          * It is important that you must put walls first into a level, and the
@@ -378,7 +655,7 @@ public final class Level implements Transposable {
          * @throws IllegalArgumentException if the template is malformed
          */
         public Builder fillBoard(String template) throws IllegalArgumentException {
-            this.board = fillUpFromState(template);
+            this.cells = fillUpFromState(template);
             return this;
         }
 
@@ -387,18 +664,20 @@ public final class Level implements Transposable {
          *
          * <p>
          * This method also sets the {@code initialState} for the level, so we
-         * can refer to it in the future.</p>
+         * can refer to it in the future. The parts of the level that never
+         * change are kept in a new {@link LevelDefinition}.</p>
          *
          * @return a {@code Level} object with the builded fields
          * @throws IllegalArgumentException if the board of the level is not set
          * yet
          */
         public Level build() throws IllegalArgumentException {
-            if (this.board == null) {
+            if (this.cells == null) {
                 throw new IllegalArgumentException("Board is not set yet.");
             }
             if (this.initialState == null || this.initialState.equals("")) {
                 this.initialState = setupInitialState();
+                this.initialCells = cells.clone();
             }
 
             return new Level(this);
@@ -406,48 +685,48 @@ public final class Level implements Transposable {
 
         //CHECKSTYLE:OFF
         private String setupInitialState() {
-            return Arrays.stream(board)
-                    .map(row -> Arrays.toString(row)
-                    .replaceAll("\\W", "")
-                    .replaceAll("null", "x")
-                    )
-                    .collect(Collectors.joining(";"));
+            StringBuilder sb = new StringBuilder();
+
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0 && i % boardSize == 0) {
+                    sb.append(';');
+                }
+                sb.append(toChar(cells[i]));
+            }
+            return sb.toString();
         }
 
-        private Candy[][] fillUpRandom() {
-            Candy[][] newBoard = new Candy[boardSize][boardSize];
+        private byte[] fillUpRandom(RefillSource source) {
+            byte[] newCells = new byte[boardSize * boardSize];
 
-            for (int i = 0; i < boardSize; i++) {
-                for (int j = 0; j < boardSize; j++) {
-                    newBoard[i][j] = new Candy(Candy.getRandomColorState());
-                }
+            for (int i = 0; i < newCells.length; i++) {
+                newCells[i] = source.next();
             }
 
             if (walls != null) {
-                Arrays.stream(walls).forEach(wall -> newBoard[wall[0]][wall[1]] = null);
+                Arrays.stream(walls).forEach(wall -> newCells[wall[0] * boardSize + wall[1]] = WALL);
             }
 
-            return newBoard;
+            return newCells;
         }
 
-        private Candy[][] fillUpFromState(String template) throws IllegalArgumentException {
-            Candy[][] newBoard = new Candy[boardSize][boardSize];
+        private byte[] fillUpFromState(String template) throws IllegalArgumentException {
+            byte[] newCells = new byte[boardSize * boardSize];
             String[] state = template.split(";");
 
-            if (state.length != state[0].length()) {
+            if (state.length != state[0].length() || state.length != boardSize) {
                 throw new IllegalArgumentException("Malformed board state string");
             }
 
             for (int i = 0; i < state.length; i++) {
-                for (int j = 0; j < state[i].length(); j++) {
-                    if (state[i].charAt(j) == 'x') {
-                        newBoard[i][j] = null;
-                    } else {
-                        newBoard[i][j] = new Candy(Candy.getStateFromChar(state[i].charAt(j)));
-                    }
+                if (state[i].length() != boardSize) {
+                    throw new IllegalArgumentException("Malformed board state string");
+                }
+                for (int j = 0; j < boardSize; j++) {
+                    newCells[i * boardSize + j] = toCode(state[i].charAt(j));
                 }
             }
-            return newBoard;
+            return newCells;
         }
         //CHECKSTYLE:ON
     }
@@ -0,0 +1,230 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Class representing the parts of a level that never change while it is played.
+ *
+ * <p>
+ * A definition holds the ID, the board size, the score to complete, the available steps, the
+ * engine and the initial board of a level, with its walls compiled into a bit mask. It is
+ * immutable, so one definition can be shared by every {@link Level} that is played on it, and each
+ * of those levels only has to keep its own cells. A new board can be made from a definition
+ * without parsing any strings.</p>
+ *
+ * <pre>
+ *
+ *  LevelDefinition definition = level.getDefinition();
+ *
+ *  Level first = definition.newLevel(42L);
+ *  Level second = definition.newLevel(43L);
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ * @see Level.Builder
+ */
+public final class LevelDefinition {
+
+    //CHECKSTYLE:OFF
+    private final int ID;
+    private final int boardSize;
+    private final int scoreToComplete;
+    private final int availableSteps;
+    private final boolean bitBoardEngine;
+    private final String initialState;
+    private final byte[] initialCells;
+    private final long[] wallMask;
+    private final Integer[][] walls;
+    private final int wallsHash;
+
+    LevelDefinition(int ID, int boardSize, int scoreToComplete, int availableSteps,
+            boolean bitBoardEngine, String initialState, byte[] initialCells, Integer[][] walls) {
+        this.ID = ID;
+        this.boardSize = boardSize;
+        this.scoreToComplete = scoreToComplete;
+        this.availableSteps = availableSteps;
+        this.bitBoardEngine = bitBoardEngine;
+        this.initialState = initialState;
+        this.initialCells = initialCells.clone();
+        this.wallMask = new long[(initialCells.length + 63) >>> 6];
+        this.walls = copyWalls(walls);
+        this.wallsHash = Arrays.deepHashCode(walls);
+
+        for (int k = 0; k < initialCells.length; k++) {
+            if (initialCells[k] == Level.WALL) {
+                wallMask[k >>> 6] |= 1L << k;
+            }
+        }
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Makes a new level with the initial board of this definition.
+     *
+     * @return a new level that shares this definition
+     */
+    public Level newLevel() {
+        return new Level(this, initialCells.clone());
+    }
+
+    /**
+     * Makes a new level with a board filled up with random color states generated from the given
+     * seed, and the walls of this definition.
+     *
+     * <p>
+     * The board is the same as the one {@code Level.Builder.fillBoard(seed)} makes with the same
+     * walls, and it is also the initial board of the new level, so resetting the level restores
+     * this board instead of the initial board of the definition.</p>
+     *
+     * @param seed the seed of the generator
+     * @return a new level that shares this definition
+     */
+    public Level newLevel(long seed) {
+        RefillSource source = new RandomRefillSource(seed);
+        byte[] cells = new byte[initialCells.length];
+
+        for (int k = 0; k < cells.length; k++) {
+            byte code = source.next();
+            cells[k] = isWall(k) ? Level.WALL : code;
+        }
+        return new Level(this, cells, cells.clone());
+    }
+
+    /**
+     * Returns if there is a wall in the cell with the given index, in the order
+     * {@link Level#getCells()} stores the cells.
+     *
+     * @param index the index of the cell
+     * @return {@code true} if there is a wall in the cell
+     */
+    public boolean isWall(int index) {
+        return (wallMask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns a copy of the cells of the initial board.
+     *
+     * @return the codes of the initial board, in the order {@link Level#getCells()} stores them
+     */
+    public byte[] getInitialCells() {
+        return initialCells.clone();
+    }
+
+    /**
+     * Returns the cells of the initial board without copying them, they must not be changed.
+     *
+     * @return the codes of the initial board
+     */
+    byte[] initialCells() {
+        return initialCells;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 53 * hash + this.scoreToComplete;
+        hash = 53 * hash + this.ID;
+        hash = 53 * hash + this.wallsHash;
+        hash = 53 * hash + this.availableSteps;
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final LevelDefinition other = (LevelDefinition) obj;
+        if (this.scoreToComplete != other.scoreToComplete) {
+            return false;
+        }
+        if (this.ID != other.ID) {
+            return false;
+        }
+        if (this.availableSteps != other.availableSteps) {
+            return false;
+        }
+        if (!Arrays.deepEquals(this.walls, other.walls)) {
+            return false;
+        }
+        return true;
+    }
+
+    //CHECKSTYLE:OFF
+    public int getID() {
+        return ID;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getScoreToComplete() {
+        return scoreToComplete;
+    }
+
+    public int getAvailableSteps() {
+        return availableSteps;
+    }
+
+    public boolean isBitBoardEngine() {
+        return bitBoardEngine;
+    }
+
+    public String getInitialState() {
+        return initialState;
+    }
+
+    //CHECKSTYLE:ON
+
+    /**
+     * Returns the coordinates of the walls of the level.
+     *
+     * @return a copy of the coordinates, changing it does not change the definition
+     */
+    public Integer[][] getWalls() {
+        return copyWalls(walls);
+    }
+
+    //CHECKSTYLE:OFF
+    private static Integer[][] copyWalls(Integer[][] walls) {
+        if (walls == null) {
+            return null;
+        }
+
+        Integer[][] copy = new Integer[walls.length][];
+        for (int k = 0; k < walls.length; k++) {
+            copy[k] = walls[k].clone();
+        }
+        return copy;
+    }
+    //CHECKSTYLE:ON
+}
@@ -22,10 +22,10 @@ package unicrush.model;
  * #L%
  */
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import unicrush.model.jfr.EnginePhase;
+import unicrush.model.jfr.PhaseRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,13 +75,18 @@ import org.slf4j.LoggerFactory;
  *
  *  // or
  *
- *  List&lt;String&gt; boardStates = game.getManager().processWithState();
+ *  List&lt;BoardSnapshot&gt; snapshots = game.getManager().processWithSnapshots();
+ *
+ *  // or
+ *
+ *  List&lt;CascadeStep&gt; steps = game.getManager().processWithDeltas();
  * </pre>
  *
  * <p>
  * The first example processes the level as mentioned above, and returns the iterations, the second
- * way gives us a list of strings, that somehow refer to snapshots of the level during the
- * processing.</p>
+ * way gives us a list of {@link BoardSnapshot} instances of the level during the processing.
+ * {@code processWithState()} gives the same list as template strings. The third way only gives the
+ * cells that changed in each iteration, see {@link CascadeStep}.</p>
  *
  * <p>
  * If you would like to get information about an area in which a swap is possible, you may do one
@@ -97,6 +102,18 @@ import org.slf4j.LoggerFactory;
  * </pre>
  *
  * <p>
+ * If you need every legal swap, not just an area, the manager can list them with the number of
+ * candies each would clear, or only the best few of them:</p>
+ *
+ * <pre>
+ *  List&lt;Move&gt; moves = game.getManager().findAllMoves();
+ *
+ *  // or
+ *
+ *  List&lt;Move&gt; bestMoves = game.getManager().findBestMoves(3);
+ * </pre>
+ *
+ * <p>
  * In every situation you can get how many iterations occurred during the processing, and also you
  * can get the score the player would get, by using {@code getIterations()} and {@code getSum()}</p>
  *
@@ -110,10 +127,39 @@ import org.slf4j.LoggerFactory;
  */
 public final class LevelManager {
 
+    /**
+     * The capacity of the {@link HintCache} a manager creates for itself.
+     */
+    public static final int DEFAULT_HINT_CACHE_CAPACITY = 256;
+
     //CHECKSTYLE:OFF
     private static final Logger LOGGER = LoggerFactory.getLogger(LevelManager.class);
 
+    private static final byte EMPTY = (byte) CandyState.EMPTY.ordinal();
+    private static final int[] NO_MOVE = new int[0];
+    private static final CandyState[] STATES = CandyState.values();
+
+    // 'X' cells have the same state, the 'o' cell is where a candy moves, so it cannot be a wall
+    private static final boolean[] INLINE_MOVES = createMoveTable(4, "XXoX", "XoXX");
+    private static final boolean[] BOX_MOVES = createMoveTable(6,
+            "XXo..X", "XoX.X.", "oXXX..",
+            "..XXXo", ".X.XoX", "X..oXX");
+
+
     private Level level;
+    private BitBoard bitBoard;
+    private long[] marked;
+    private boolean[] dirtyRows;
+    private boolean[] dirtyCols;
+    private byte[] beforePop;
+    private byte[] afterPop;
+    private int[] refillTops;
+    private final int[] poppedCounts = new int[STATES.length];
+    private final PhaseRecorder phases = PhaseRecorder.create();
+    private CascadeMetrics metrics = CascadeMetrics.getInstance();
+    private int modCount;
+    private RefillSource refillSource;
+    private HintCache hintCache;
     private int iterations;
     private int sum;
     //CHECKSTYLE:ON
@@ -124,15 +170,33 @@ public final class LevelManager {
      * @param level the level we would like to manage
      */
     public LevelManager(Level level) {
-        this.level = level;
+        this(level, new RandomRefillSource());
+    }
+
+    /**
+     * Constructs an object for a game, that fills up the level with the candies of the given
+     * source.
+     *
+     * <p>
+     * Using a {@link RandomRefillSource} with a known seed makes the game reproducible.</p>
+     *
+     * @param level the level we would like to manage
+     * @param refillSource the source of the new candies
+     */
+    public LevelManager(Level level, RefillSource refillSource) {
+        this.refillSource = refillSource;
+        this.hintCache = new HintCache(DEFAULT_HINT_CACHE_CAPACITY);
         this.iterations = 0;
         this.sum = 0;
+        setLevel(level);
     }
 
     /**
      * Constructs an object for a game, with no level to manage.
      */
     public LevelManager() {
+        this.refillSource = new RandomRefillSource();
+        this.hintCache = new HintCache(DEFAULT_HINT_CACHE_CAPACITY);
         this.level = null;
         this.iterations = 0;
         this.sum = 0;
@@ -148,16 +212,30 @@ public final class LevelManager {
      * <p>
      * We check how many iterations occurred, so this cannot be an infinite loop</p>
      *
+     * <p>
+     * If the level uses the bitboard engine, the whole processing happens on the masks of a
+     * {@link BitBoard}, and the board of the level is only written once at the end.</p>
+     *
+     * <p>
+     * Every processing method records its cascade in the {@link CascadeMetrics}, unless the
+     * manager opted out with {@link #setRecordingMetrics(boolean)}.</p>
+     *
      * @return how many iterations occurred
      */
     public int process() {
-        for (iterations = 0; iterations < CandyCrushGame.MAX_ITERATION; iterations++) {
-            if (popAllMarked()) {
-                sum += applyGravity();
-            } else {
-                break;
+        if (bitBoard != null) {
+            processBitBoard();
+        } else {
+            for (iterations = 0; iterations < CandyCrushGame.MAX_ITERATION; iterations++) {
+                if (popAllMarked()) {
+                    sum += applyGravity();
+                } else {
+                    break;
+                }
             }
+            metrics.recordCascade(iterations);
         }
+        traceLevel();
         return iterations;
     }
 
@@ -172,64 +250,135 @@ public final class LevelManager {
      * We should check how many iterations occurred, so this cannot be an infinite loop and in
      * addition we summarize the points that {@code applyGravity} returns.</p>
      *
-     * @return a list containing the board states of each iteration
+     * @return a list containing the snapshots of the board after each pop and gravity step
      */
-    public List<String> processWithState() {
-        List<String> states = new ArrayList<>();
+    public List<BoardSnapshot> processWithSnapshots() {
+        List<BoardSnapshot> snapshots = new ArrayList<>();
         sum = 0;
 
         for (iterations = 0; iterations < CandyCrushGame.MAX_ITERATION; iterations++) {
             if (popAllMarked()) {
-                states.add(level.getBoardState());
+                captureSnapshot(snapshots);
                 sum += applyGravity();
-                states.add(level.getBoardState());
+                captureSnapshot(snapshots);
             } else {
                 break;
             }
         }
+        metrics.recordCascade(iterations);
+        traceLevel();
 
-        return states;
+        return snapshots;
     }
 
     /**
-     * Resetting the {@code board} based on the original board state.
+     * Iterations processing the level and returning the changes of each iteration.
+     *
+     * <p>
+     * Works the same way as {@code processWithSnapshots()}, but instead of the whole board, each
+     * element of the list only holds the cells that were popped, the candies that fell and the
+     * candies that filled up the board in that iteration.</p>
+     *
+     * @return a list containing the changes of the board in each iteration
+     * @see CascadeStep
      */
-    public void reset() {
-        String[] boardStates = level.getInitialState().split(";", level.getBoardSize());
-        for (int i = 0; i < boardStates.length; i++) {
-            for (int j = 0; j < boardStates[i].length(); j++) {
-                if (boardStates[i].charAt(j) == 'x') {
-                    level.set(i, j, null);
-                } else {
-                    level.set(i, j, new Candy(Candy.getStateFromChar(boardStates[i].charAt(j))));
-                }
+    public List<CascadeStep> processWithDeltas() {
+        List<CascadeStep> steps = new ArrayList<>();
+        byte[] cells = level.getCells();
+        sum = 0;
+
+        for (iterations = 0; iterations < CandyCrushGame.MAX_ITERATION; iterations++) {
+            System.arraycopy(cells, 0, beforePop, 0, cells.length);
+
+            if (popAllMarked()) {
+                System.arraycopy(cells, 0, afterPop, 0, cells.length);
+                int score = applyGravity();
+                sum += score;
+                phases.begin(EnginePhase.STATE_CAPTURE);
+                steps.add(CascadeStep.between(level.getBoardSize(), beforePop, afterPop, cells, score));
+                endPhase(EnginePhase.STATE_CAPTURE);
+            } else {
+                break;
             }
         }
+        metrics.recordCascade(iterations);
+        traceLevel();
+
+        return steps;
+    }
+
+    /**
+     * Iterations processing the level and returning information in a list of template strings.
+     *
+     * @return a list containing the board states of each iteration
+     * @see #processWithSnapshots()
+     */
+    public List<String> processWithState() {
+        List<BoardSnapshot> snapshots = processWithSnapshots();
+        List<String> states = new ArrayList<>(snapshots.size());
+
+        for (BoardSnapshot snapshot : snapshots) {
+            states.add(snapshot.toString());
+        }
+        return states;
+    }
 
+    /**
+     * Resetting the {@code board} based on the original board state.
+     *
+     * <p>
+     * The initial cells are kept in the {@link LevelDefinition} of the level, or in the level
+     * itself if it was made from a seed, so the board is restored with a single array copy,
+     * without parsing the initial state string.</p>
+     */
+    public void reset() {
         if (level.isTransposed()) {
             level.transpose();
         }
+
+        level.setCells(level.initialCells());
     }
 
     /**
-     * Swaps two {@code Candy} instances on the board, if a given statement is true.
+     * Decides if two {@code Candy} instances on the board can be swapped, that is they are
+     * neighbours, and none of them is a wall.
      *
      * @param coors an array representing the coordinates of the {@code Candy} instances in the
      * board
-     * @return {@code true} if swap was successful, {@code false} if not
+     * @return {@code true} if {@code swap} would be successful, {@code false} if not
      */
-    public boolean swap(Integer[][] coors) {
+    public boolean canSwap(Integer[][] coors) {
         if (Math.abs(coors[0][0] - coors[1][0]) + Math.abs(coors[0][1] - coors[1][1]) != 1) {
             return false;
         }
-        if (level.get(coors[0][0], coors[0][1]) == null || level.get(coors[1][0], coors[1][1]) == null) {
+        return level.getCell(coors[0][0], coors[0][1]) != Level.WALL
+                && level.getCell(coors[1][0], coors[1][1]) != Level.WALL;
+    }
+
+    /**
+     * Swaps two {@code Candy} instances on the board, if a given statement is true.
+     *
+     * @param coors an array representing the coordinates of the {@code Candy} instances in the
+     * board
+     * @return {@code true} if swap was successful, {@code false} if not
+     */
+    public boolean swap(Integer[][] coors) {
+        if (!canSwap(coors)) {
             return false;
         }
 
-        Candy tmp = level.get(coors[0][0], coors[0][1]);
-        level.set(coors[0][0], coors[0][1], level.get(coors[1][0], coors[1][1]));
-        level.set(coors[1][0], coors[1][1], tmp);
+        phases.begin(EnginePhase.SWAP);
+        byte[] cells = level.getCells();
+        int first = indexOf(coors[0][0], coors[0][1]);
+        int second = indexOf(coors[1][0], coors[1][1]);
 
+        byte tmp = cells[first];
+        level.putCell(first, cells[second]);
+        level.putCell(second, tmp);
+
+        markDirty(first);
+        markDirty(second);
+        phases.commit(EnginePhase.SWAP, level.getID(), level.getBoardSize(), 0);
         return true;
     }
 
@@ -246,22 +395,50 @@ public final class LevelManager {
      * </ol>
      *
      * @return a string representing the coordinates of a box in which a move is possible
+     *
+     * @see #findMoveArea()
      */
     public String getAvailableMoves() {
-        String possibleCoordinates = "";
+        return toTemplate(findMoveArea());
+    }
 
-        LOGGER.debug("Horizontal processing..");
-        possibleCoordinates = lookForMoves();
+    /**
+     * Returns the coordinates of a box, in which a move is possible.
+     *
+     * <p>
+     * This is the primitive form of {@link #getAvailableMoves()}, the coordinates follow each other
+     * in the same order as in the template string, so <em>1,0;1,1;1,2;1,3;</em> is returned as
+     * {@code {1, 0, 1, 1, 1, 2, 1, 3}}.</p>
+     *
+     * <p>
+     * The search runs at most once for a board position, the results are kept in the
+     * {@link HintCache} of the manager, keyed by the Zobrist hash of the board. By default every
+     * manager has its own cache, managers that run on the same thread may share one with
+     * {@link #setHintCache(unicrush.model.HintCache)}.</p>
+     *
+     * <p>
+     * The returned array is the one kept in the cache, so a hint found before does not allocate
+     * anything. It is shared by every caller that finds the same board, so it must not be
+     * changed.</p>
+     *
+     * @return an array with the row and column indexes of the box, an empty array if there are not
+     * any possible moves, it must be treated as read-only
+     */
+    public int[] findMoveArea() {
+        long hash = level.getZobristHash();
+        int[] area = hintCache.get(hash);
 
-        if (possibleCoordinates.length() == 0) {
-            level.transpose();
+        if (area == null) {
+            phases.begin(EnginePhase.HINT_SEARCH);
+            area = findMove(false);
 
-            LOGGER.debug("Vertical processing..");
-            possibleCoordinates = lookForMoves();
-            level.transpose();
+            if (area.length == 0) {
+                area = findMove(true);
+            }
+            phases.commit(EnginePhase.HINT_SEARCH, level.getID(), level.getBoardSize(), 0);
+            hintCache.put(hash, area);
         }
-
-        return possibleCoordinates;
+        return area;
     }
 
     /**
@@ -286,80 +463,213 @@ public final class LevelManager {
      * If there are no possible moves inline, we look for a 3x2 rectangle, in which we can perform a
      * move.</p>
      *
+     * <p>
+     * The windows are not matched against patterns one by one, instead the cells of a window that
+     * have the same state as its first cell, and the walls of the window, are packed into a few
+     * bits, and these bits index a precomputed table of the possible moves.</p>
+     *
      * @return a string representing a coordinate, we found first with the algorithm above
      */
     public String lookForMoves() {
-        String coor = "";
-        String[] levelStates = level.getBoardState().split(";");
+        return toTemplate(findMove(level.isTransposed()));
+    }
+
+    /**
+     * Returns all the legal moves on the board.
+     *
+     * <p>
+     * A swap of two neighbouring cells is legal, if it makes three or more candies match in a row
+     * or column. The board is scanned in one pass, every cell is tried with its right and lower
+     * neighbour, so the moves are listed in row-major order of their first cell.</p>
+     *
+     * @return a list of the legal moves, with the number of candies each would clear
+     */
+    public List<Move> findAllMoves() {
+        byte[] cells = level.getCells();
+        int size = level.getBoardSize();
+        List<Move> moves = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (j + 1 < size) {
+                    addMove(moves, cells, size, i, j, i, j + 1);
+                }
+                if (i + 1 < size) {
+                    addMove(moves, cells, size, i, j, i + 1, j);
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the legal moves with the highest immediate score.
+     *
+     * <p>
+     * Moves with the same score keep the order of {@link #findAllMoves()}.</p>
+     *
+     * @param k the maximum number of moves we need
+     * @return a list of at most {@code k} moves in descending order of their score
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<Move> findBestMoves(int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid number of moves: " + k);
+        }
+
+        List<Move> moves = findAllMoves();
+        moves.sort((first, second) -> Integer.compare(second.getScore(), first.getScore()));
 
-        for (int i = 0; i < levelStates.length - 1; i++) {
-            for (int j = 0; j < levelStates[i].length() - 3; j++) {
-                String top3 = levelStates[i].substring(j, j + 3);
-                String bot3 = levelStates[i + 1].substring(j, j + 3);
+        return moves.size() > k ? new ArrayList<>(moves.subList(0, k)) : moves;
+    }
 
-                coor = inlineMatch(top3, levelStates[i], i);
+    //CHECKSTYLE:OFF
+    private static void addMove(List<Move> moves, byte[] cells, int size, int i1, int j1, int i2, int j2) {
+        int first = i1 * size + j1;
+        int second = i2 * size + j2;
+        byte a = cells[first];
+        byte b = cells[second];
+
+        if (a == Level.WALL || b == Level.WALL || a == b) {
+            return;
+        }
 
-                if (coor.length() != 0) {
-                    return coor;
-                } else {
-                    coor = reactangleMatch(top3, bot3, i, j);
+        // the cells are restored right away, so the hash of the level does not have to be updated
+        cells[first] = b;
+        cells[second] = a;
+        int cleared = countCleared(cells, size, i1, j1) + countCleared(cells, size, i2, j2);
+        cells[first] = a;
+        cells[second] = b;
+
+        if (cleared > 0) {
+            moves.add(new Move(i1, j1, i2, j2, cleared, score(cleared)));
+        }
+    }
+
+    private static int countCleared(byte[] cells, int size, int i, int j) {
+        byte color = cells[i * size + j];
+        int left = 0;
+        int right = 0;
+        int up = 0;
+        int down = 0;
+
+        while (j - left > 0 && cells[i * size + j - left - 1] == color) {
+            left++;
+        }
+        while (j + right < size - 1 && cells[i * size + j + right + 1] == color) {
+            right++;
+        }
+        while (i - up > 0 && cells[(i - up - 1) * size + j] == color) {
+            up++;
+        }
+        while (i + down < size - 1 && cells[(i + down + 1) * size + j] == color) {
+            down++;
+        }
+
+        int horizontal = left + right + 1 >= 3 ? left + right : 0;
+        int vertical = up + down + 1 >= 3 ? up + down : 0;
+
+        return horizontal + vertical + (horizontal + vertical > 0 ? 1 : 0);
+    }
+
+    private int[] findMove(boolean vertical) {
+        byte[] cells = level.getCells();
+        int size = level.getBoardSize();
+        int along = vertical ? size : 1;
+        int across = vertical ? 1 : size;
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j + 4 <= size; j++) {
+                int start = i * across + j * along;
+                byte color = cells[start];
+
+                if (color != Level.WALL && INLINE_MOVES[pack(cells, color, start, along, 0, 1, 4)]) {
+                    return area(vertical, i, j, 1, 4);
                 }
+            }
 
-                if (coor.length() != 0) {
-                    return coor;
-                } else {
-                    continue;
+            if (i + 1 == size) {
+                break;
+            }
+
+            for (int j = 0; j + 3 <= size; j++) {
+                int start = i * across + j * along;
+
+                if (isBoxMove(cells, cells[start], start, along, across)
+                        || isBoxMove(cells, cells[start + across], start, along, across)) {
+                    return area(vertical, i, j, 2, 3);
                 }
             }
         }
-        return coor;
+        return NO_MOVE;
     }
 
-    //CHECKSTYLE:OFF
-    private String inlineMatch(String top3, String row, int i) {
-        String coor = "";
-        String reg = "(.*XX.X.*|.*X.XX.*)".replaceAll("X", "" + top3.charAt(0));
-
-        if (row.matches(reg)) {
-            int start = row.indexOf(top3.charAt(0));
-            for (int k = start; k < start + 4; k++) {
-                if (level.isTransposed()) {
-                    coor += k + "," + i + ";";
-                } else {
-                    coor += i + "," + k + ";";
+    private static boolean isBoxMove(byte[] cells, byte color, int start, int along, int across) {
+        return color != Level.WALL && BOX_MOVES[pack(cells, color, start, along, across, 2, 3)];
+    }
+
+    private static int pack(byte[] cells, byte color, int start, int along, int across,
+            int lines, int length) {
+        int walls = lines * length;
+        int bits = 0;
+
+        for (int l = 0; l < lines; l++) {
+            for (int k = 0; k < length; k++) {
+                byte cell = cells[start + l * across + k * along];
+
+                if (cell == color) {
+                    bits |= 1 << (l * length + k);
+                } else if (cell == Level.WALL) {
+                    bits |= 1 << (walls + l * length + k);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private static int[] area(boolean vertical, int i, int j, int lines, int length) {
+        int[] area = new int[2 * lines * length];
+        int index = 0;
+
+        for (int k = j; k < j + length; k++) {
+            for (int l = i; l < i + lines; l++) {
+                area[index++] = vertical ? k : l;
+                area[index++] = vertical ? l : k;
+            }
+        }
+        return area;
+    }
+
+    private static String toTemplate(int[] area) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int k = 0; k < area.length; k += 2) {
+            sb.append(area[k]).append(',').append(area[k + 1]).append(';');
+        }
+        return sb.toString();
+    }
+
+    private static boolean[] createMoveTable(int cells, String... patterns) {
+        boolean[] table = new boolean[1 << 2 * cells];
+
+        for (String pattern : patterns) {
+            int same = 0;
+            int free = 0;
+
+            for (int k = 0; k < cells; k++) {
+                if (pattern.charAt(k) == 'X') {
+                    same |= 1 << k;
+                } else if (pattern.charAt(k) == 'o') {
+                    free |= 1 << (cells + k);
                 }
             }
-            return coor;
-        }
-        return coor;
-    }
-
-    private String reactangleMatch(String top3, String bot3, int i, int j) {
-        String coor = "";
-        String[] regexes = {
-            "(XX...X|X.X.X.|.XXX..)".replaceAll("X", "" + top3.charAt(0)),
-            "(..XXX.|.X.X.X|X...XX)".replaceAll("X", "" + top3.charAt(0)),
-            "(XX...X|X.X.X.|.XXX..)".replaceAll("X", "" + bot3.charAt(0)),
-            "(..XXX.|.X.X.X|X...XX)".replaceAll("X", "" + bot3.charAt(0))
-        };
-
-        for (String regex : regexes) {
-            if ((top3 + bot3).matches(regex) || (bot3 + top3).matches(regex)) {
-                LOGGER.debug("Parsing:\n{}\n{}", top3, bot3);
-
-                for (int k = j; k < j + 3; k++) {
-                    if (level.isTransposed()) {
-                        coor += k + "," + i + ";";
-                        coor += k + "," + (i + 1) + ";";
-                    } else {
-                        coor += i + "," + k + ";";
-                        coor += (i + 1) + "," + k + ";";
-                    }
+            for (int bits = 0; bits < table.length; bits++) {
+                if ((bits & same) == same && (bits & free) == 0) {
+                    table[bits] = true;
                 }
-                return coor;
             }
         }
-        return coor;
+        return table;
     }
     //CHECKSTYLE:ON
 
@@ -367,97 +677,296 @@ public final class LevelManager {
      * Refreshes the {@code Candy.State} of {@code Candy} instances in the {@code level}'s board
      * that are in a column or row with a length more than two.
      *
+     * <p>
+     * Only the rows and columns that changed since the last call are scanned. The manager keeps
+     * track of the cells it swaps, pops and moves by gravity, and it scans the whole board if the
+     * level was modified through its own {@code set} methods.</p>
+     *
+     * <p>
+     * The marks are kept in a bitset with one bit per cell, the pop pass only visits the set bits,
+     * and the marks are cleared with a bulk zero at the end.</p>
+     *
      * @return {@code true} if a change happened in the board, {@code false} if did not
      */
     public boolean popAllMarked() {
+        if (bitBoard != null) {
+            bitBoard.load(level);
+            long markStart = metrics.now();
+            phases.begin(EnginePhase.MARK);
+            long matches = bitBoard.findMatches();
+            endPhase(EnginePhase.MARK);
+            long popStart = metrics.now();
+
+            if (matches == 0) {
+                metrics.recordPop(markStart, popStart, popStart);
+                return false;
+            }
+            phases.begin(EnginePhase.POP);
+            recordPopped(matches);
+            bitBoard.pop(matches);
+            endPhase(EnginePhase.POP);
+            metrics.recordPop(markStart, popStart, metrics.now());
+            bitBoard.store(level);
+            return true;
+        }
+
+        long markStart = metrics.now();
+        phases.begin(EnginePhase.MARK);
         markAllCandies();
-        level.transpose();
-        markAllCandies();
-        level.transpose();
+        endPhase(EnginePhase.MARK);
+        long popStart = metrics.now();
 
+        phases.begin(EnginePhase.POP);
+        byte[] cells = level.getCells();
         boolean popHappened = false;
 
-        for (int row = 0; row < level.getBoardSize(); row++) {
-            for (int col = 0; col < level.getBoardSize(); col++) {
-                if (level.get(row, col) != null && level.get(row, col).isMarkedForPop()) {
-                    level.get(row, col).setState(CandyState.EMPTY);
-                    level.get(row, col).setMarkedForPop(false);
-                    popHappened = true;
-                }
+        for (int word = 0; word < marked.length; word++) {
+            for (long bits = marked[word]; bits != 0; bits &= bits - 1) {
+                int k = (word << 6) + Long.numberOfTrailingZeros(bits);
+
+                poppedCounts[cells[k]]++;
+                level.putCell(k, EMPTY);
+                markDirty(k);
+                popHappened = true;
             }
         }
-
-        LOGGER.trace("Current level:\n{}", level.toString());
+        Arrays.fill(marked, 0L);
+        endPhase(EnginePhase.POP);
+        metrics.recordPop(markStart, popStart, metrics.now());
+        recordPopped();
         return popHappened;
     }
 
     /**
      * All {@code Candy} instances "fall" when there's empty space in their column.
      *
+     * <p>
+     * Each column is compacted in place from the bottom, so the candies keep their order, and the
+     * empty cells on the top are filled up from the refill source of this manager. This method does
+     * not allocate any objects.</p>
+     *
      * @return the score that is calculated by the following formula:
      * <pre>EMPTY_CANDIES / 3 * EMPTY_CANDIES * 60</pre>
+     *
+     * @see #setRefillSource(unicrush.model.RefillSource)
      */
     public int applyGravity() {
+        if (bitBoard != null) {
+            bitBoard.load(level);
+            long start = metrics.now();
+            phases.begin(EnginePhase.GRAVITY);
+            int re = bitBoard.applyGravity(refillSource);
+            endPhase(EnginePhase.GRAVITY);
+            metrics.recordGravity(start, metrics.now());
+            bitBoard.store(level);
+            return score(re);
+        }
+
+        long start = metrics.now();
+        phases.begin(EnginePhase.GRAVITY);
+        byte[] cells = level.getCells();
+        int size = level.getBoardSize();
+        int lowest = -1;
         int re = 0;
 
-        for (int i = 0; i < level.getBoardSize(); i++) {
-            List<Candy> candies = new ArrayList<>();
+        for (int col = 0; col < size; col++) {
+            int write = cells.length - size + col;
 
-            for (int col = 0; col < level.getBoardSize(); col++) {
-                if (level.get(col, i) == null) {
+            for (int read = write; read >= 0; read -= size) {
+                byte code = cells[read];
+
+                if (code == Level.WALL) {
                     continue;
                 }
-                candies.add(level.get(col, i));
-
-                if (level.get(col, i).isEmpty()) {
+                if (code == EMPTY) {
+                    lowest = Math.max(lowest, read / size);
+                    dirtyCols[col] = true;
                     re++;
+                    continue;
+                }
+                while (cells[write] == Level.WALL) {
+                    write -= size;
                 }
+                level.putCell(write, code);
+                write -= size;
             }
+            refillTops[col] = write;
+        }
+        endPhase(EnginePhase.GRAVITY);
+
+        // the source is read in the same order as if the columns were filled up one by one
+        phases.begin(EnginePhase.REFILL);
+        for (int col = 0; col < size; col++) {
+            for (int write = refillTops[col]; write >= 0; write -= size) {
+                if (cells[write] != Level.WALL) {
+                    level.putCell(write, refillSource.next());
+                }
+            }
+        }
+        endPhase(EnginePhase.REFILL);
 
-            LOGGER.trace("Candies in active column:\n{}", candies.toString());
+        // every cell above the lowest empty cell of a column may have moved
+        for (int row = 0; row <= lowest; row++) {
+            dirtyRows[row] = true;
+        }
+        metrics.recordGravity(start, metrics.now());
+        return score(re);
+    }
 
-            Collections.sort(candies);
-            candies.replaceAll(c -> c.isEmpty() ? new Candy(Candy.getRandomColorState()) : c);
+    //CHECKSTYLE:OFF
+    private int processBitBoard() {
+        bitBoard.load(level);
 
-            int index = 0;
-            for (int col = 0; col < level.getBoardSize(); col++) {
-                if (level.get(col, i) != null) {
-                    level.set(col, i, candies.get(index++));
-                }
+        for (iterations = 0; iterations < CandyCrushGame.MAX_ITERATION; iterations++) {
+            long markStart = metrics.now();
+            phases.begin(EnginePhase.MARK);
+            long matches = bitBoard.findMatches();
+            endPhase(EnginePhase.MARK);
+            long popStart = metrics.now();
+
+            if (matches == 0) {
+                metrics.recordPop(markStart, popStart, popStart);
+                break;
             }
+            phases.begin(EnginePhase.POP);
+            recordPopped(matches);
+            bitBoard.pop(matches);
+            endPhase(EnginePhase.POP);
+            long gravityStart = metrics.now();
+            metrics.recordPop(markStart, popStart, gravityStart);
+            phases.begin(EnginePhase.GRAVITY);
+            sum += score(bitBoard.applyGravity(refillSource));
+            endPhase(EnginePhase.GRAVITY);
+            metrics.recordGravity(gravityStart, metrics.now());
         }
-        return re / 3 * re * 60;
+
+        bitBoard.store(level);
+        metrics.recordCascade(iterations);
+        return iterations;
+    }
+
+    private void traceLevel() {
+        // the board is only logged once per cascade, so the iterations themselves do not allocate
+        LOGGER.trace("Level after {} iterations:\n{}", iterations, level);
+    }
+
+    private void captureSnapshot(List<BoardSnapshot> snapshots) {
+        phases.begin(EnginePhase.STATE_CAPTURE);
+        snapshots.add(level.getSnapshot());
+        endPhase(EnginePhase.STATE_CAPTURE);
+    }
+
+    private void endPhase(EnginePhase phase) {
+        phases.commit(phase, level.getID(), level.getBoardSize(), iterations);
+    }
+
+    private void recordPopped() {
+        for (int code = 0; code < poppedCounts.length; code++) {
+            metrics.recordPopped(code, poppedCounts[code]);
+            poppedCounts[code] = 0;
+        }
+    }
+
+    private void recordPopped(long matches) {
+        if (metrics.isEnabled()) {
+            for (CandyState state : STATES) {
+                metrics.recordPopped(state.ordinal(), Long.bitCount(matches & bitBoard.getMask(state)));
+            }
+        }
+    }
+
+    private static int score(int empties) {
+        return empties / 3 * empties * 60;
     }
 
-    //CHECKSTYLE:OFF
     private void markAllCandies() {
-        Map<String, Integer[]> candyCountMap = new HashMap<>();
-
-        for (int i = 0; i < level.getBoardSize(); i++) {
-            for (int j = 0; j < level.getBoardSize(); j++) {
-                String curr = level.get(i, j) == null ? "" : level.get(i, j).toString();
-                String next = level.get(i, j + 1) == null ? "" : level.get(i, j + 1).toString();
-
-                if (!curr.equals("") && curr.equals(next)) {
-                    if (candyCountMap.get(curr) == null) {
-                        candyCountMap.put(curr, new Integer[]{2, j});
-                    }
-                    mark(i, candyCountMap.get(curr));
-                } else {
-                    candyCountMap.remove(curr);
-                }
+        int size = level.getBoardSize();
+
+        if (level.getModCount() != modCount) {
+            markAllDirty();
+        }
+
+        for (int k = 0; k < size; k++) {
+            if (dirtyRows[k]) {
+                markRuns(k * size, 1, size);
+                dirtyRows[k] = false;
+            }
+            if (dirtyCols[k]) {
+                markRuns(k, size, size);
+                dirtyCols[k] = false;
             }
-            candyCountMap.clear();
         }
     }
 
-    private void mark(int row, Integer[] columns) {
-        if (columns[0] >= 3) {
-            for (int i = 0; i < columns[0]; i++) {
-                level.get(row, columns[1] + i).setMarkedForPop(true);
+    private void markDirty(int index) {
+        int size = level.getBoardSize();
+
+        dirtyRows[index / size] = true;
+        dirtyCols[index % size] = true;
+    }
+
+    private void markAllDirty() {
+        Arrays.fill(dirtyRows, true);
+        Arrays.fill(dirtyCols, true);
+        modCount = level.getModCount();
+    }
+
+    private int indexOf(int i, int j) {
+        int size = level.getBoardSize();
+        return level.isTransposed() ? j * size + i : i * size + j;
+    }
+
+    private void markRuns(int start, int step, int length) {
+        byte[] cells = level.getCells();
+        int runStart = 0;
+
+        for (int k = 1; k <= length; k++) {
+            byte prev = cells[start + (k - 1) * step];
+
+            if (k < length && cells[start + k * step] == prev) {
+                continue;
+            }
+            if (prev != Level.WALL && k - runStart >= 3) {
+                for (int m = runStart; m < k; m++) {
+                    int index = start + m * step;
+                    marked[index >>> 6] |= 1L << index;
+                }
             }
+            runStart = k;
         }
-        columns[0]++;
+    }
+
+    public boolean isRecordingMetrics() {
+        return metrics != CascadeMetrics.NONE;
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Turns the recording of the cascades of this manager into the {@link CascadeMetrics} on or
+     * off, managers that only simulate moves, like the ones of a bot's lookahead, should not be
+     * counted with the real games.
+     *
+     * @param recording {@code true} if the cascades of this manager are recorded
+     */
+    public void setRecordingMetrics(boolean recording) {
+        this.metrics = recording ? CascadeMetrics.getInstance() : CascadeMetrics.NONE;
+    }
+
+    //CHECKSTYLE:OFF
+    public HintCache getHintCache() {
+        return hintCache;
+    }
+
+    public void setHintCache(HintCache hintCache) {
+        this.hintCache = hintCache;
+    }
+
+    public RefillSource getRefillSource() {
+        return refillSource;
+    }
+
+    public void setRefillSource(RefillSource refillSource) {
+        this.refillSource = refillSource;
     }
 
     public int getIterations() {
@@ -477,6 +986,25 @@ public final class LevelManager {
         this.iterations = 0;
         this.sum = 0;
         this.level = level;
+        this.bitBoard = level != null && level.isBitBoardEngine()
+                ? new BitBoard(level.getBoardSize())
+                : null;
+        this.marked = null;
+        this.dirtyRows = null;
+        this.dirtyCols = null;
+        this.beforePop = null;
+        this.afterPop = null;
+        this.refillTops = null;
+
+        if (level != null) {
+            this.marked = new long[(level.getBoardSize() * level.getBoardSize() + 63) >>> 6];
+            this.beforePop = new byte[level.getBoardSize() * level.getBoardSize()];
+            this.afterPop = new byte[level.getBoardSize() * level.getBoardSize()];
+            this.dirtyRows = new boolean[level.getBoardSize()];
+            this.dirtyCols = new boolean[level.getBoardSize()];
+            this.refillTops = new int[level.getBoardSize()];
+            markAllDirty();
+        }
     }
     //CHECKSTYLE:ON
 }
@@ -0,0 +1,154 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Class representing a legal swap of two neighbouring {@code Candy} instances on the board.
+ *
+ * <p>
+ * Besides the coordinates of the two cells, a move knows how many candies would be cleared right
+ * after the swap, and the score of this first pop, calculated the same way as
+ * {@link LevelManager#applyGravity()} does. Chain reactions are not included, since they depend on
+ * the new candies falling into the board.</p>
+ *
+ * <pre>
+ *
+ *  Move best = game.getManager().findBestMoves(1).get(0);
+ *  game.getManager().swap(best.toCoordinates());
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class Move {
+
+    //CHECKSTYLE:OFF
+    private final int fromRow;
+    private final int fromCol;
+    private final int toRow;
+    private final int toCol;
+    private final int cleared;
+    private final int score;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a move between two cells.
+     *
+     * @param fromRow the row index of the first cell
+     * @param fromCol the column index of the first cell
+     * @param toRow the row index of the second cell
+     * @param toCol the column index of the second cell
+     * @param cleared the number of candies the swap would clear
+     * @param score the score of clearing these candies
+     */
+    public Move(int fromRow, int fromCol, int toRow, int toCol, int cleared, int score) {
+        this.fromRow = fromRow;
+        this.fromCol = fromCol;
+        this.toRow = toRow;
+        this.toCol = toCol;
+        this.cleared = cleared;
+        this.score = score;
+    }
+
+    /**
+     * Returns the coordinates of the two cells in the form that {@link LevelManager#swap} accepts.
+     *
+     * @return a 2D-array with the coordinates of the two cells
+     */
+    public Integer[][] toCoordinates() {
+        return new Integer[][]{{fromRow, fromCol}, {toRow, toCol}};
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 37 * hash + this.fromRow;
+        hash = 37 * hash + this.fromCol;
+        hash = 37 * hash + this.toRow;
+        hash = 37 * hash + this.toCol;
+        hash = 37 * hash + this.cleared;
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Move other = (Move) obj;
+        return this.fromRow == other.fromRow
+                && this.fromCol == other.fromCol
+                && this.toRow == other.toRow
+                && this.toCol == other.toCol
+                && this.cleared == other.cleared
+                && this.score == other.score;
+    }
+
+    /**
+     * Returns a {@code String} representation of {@code this} instance, the coordinates in a
+     * template string followed by the number of cleared candies and the score.
+     *
+     * <pre>
+     * Example:
+     *
+     *     1,2;1,3 (3, 180)
+     * </pre>
+     *
+     * @return the {@code String} representation of {@code this} instance as the example shows above
+     */
+    @Override
+    public String toString() {
+        return fromRow + "," + fromCol + ";" + toRow + "," + toCol + " (" + cleared + ", " + score + ")";
+    }
+
+    //CHECKSTYLE:OFF
+    public int getFromRow() {
+        return fromRow;
+    }
+
+    public int getFromCol() {
+        return fromCol;
+    }
+
+    public int getToRow() {
+        return toRow;
+    }
+
+    public int getToCol() {
+        return toCol;
+    }
+
+    public int getCleared() {
+        return cleared;
+    }
+
+    public int getScore() {
+        return score;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,82 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Class for a {@link RefillSource} that gives random color states from a seeded generator.
+ *
+ * <p>
+ * Every source has its own {@code SplittableRandom}, so sources used by different threads do not
+ * share any state, and two sources created with the same seed give the same color states. This way
+ * a game can be reproduced if we know the seed it was played with.</p>
+ *
+ * <pre>
+ *
+ *  RandomRefillSource source = new RandomRefillSource(42L);
+ *  game.getManager().setRefillSource(source);
+ * </pre>
+ *
+ * <p>
+ * Note, that a source is not thread safe, so it should be used by one {@code LevelManager}.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class RandomRefillSource implements RefillSource {
+
+    //CHECKSTYLE:OFF
+    private static final int BOUND = CandyState.values().length;
+
+    private final long seed;
+    private final SplittableRandom random;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a source with the given seed.
+     *
+     * @param seed the seed of the generator
+     */
+    public RandomRefillSource(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Constructs a source with a random seed, that can be queried by {@link #getSeed()}.
+     */
+    public RandomRefillSource() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public byte next() {
+        return (byte) random.nextInt(1, BOUND);
+    }
+
+    //CHECKSTYLE:OFF
+    public long getSeed() {
+        return seed;
+    }
+    //CHECKSTYLE:ON
+}
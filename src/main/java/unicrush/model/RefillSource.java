@@ -0,0 +1,41 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Interface for an object that supplies the color states of the new candies that fall into the
+ * board after a pop.
+ *
+ * @author Szalontai Jordán
+ */
+@FunctionalInterface
+public interface RefillSource {
+
+    /**
+     * Returns the code of the next color state, that is the ordinal of a {@code CandyState} other
+     * than {@code CandyState.EMPTY}.
+     *
+     * @return the code of the next color state
+     */
+    public byte next();
+}
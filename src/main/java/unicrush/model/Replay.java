@@ -0,0 +1,190 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class representing a recorded game on a level, that can be played again by the {@link Replayer}.
+ *
+ * <p>
+ * A replay consists of the ID of the level, the seed of the {@link RandomRefillSource} the game was
+ * played with, the initial board of the level, and the events of the game in order. An event is
+ * either a swap, given by a coordinate template string (e.g. <em>1,2;1,3</em>), or a shuffle of the
+ * board, when there were no more moves available.</p>
+ *
+ * <p>
+ * The {@code String} representation of a replay can be parsed back by {@link #parse(String)}, so it
+ * can be stored in a file:</p>
+ *
+ * <pre>
+ *     level 3
+ *     seed -4962768465676381896
+ *     board xRGBx;RBBRG;GBxPO;OOBOB;xBGPx
+ *     swap 3,2;3,3
+ *     shuffle
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class Replay {
+
+    /**
+     * The event of shuffling the board when there are no more moves available.
+     */
+    public static final String SHUFFLE = "shuffle";
+
+    //CHECKSTYLE:OFF
+    private static final String LEVEL = "level ";
+    private static final String SEED = "seed ";
+    private static final String BOARD = "board ";
+    private static final String SWAP = "swap ";
+
+    private final int levelId;
+    private final long seed;
+    private final BoardSnapshot initialBoard;
+    private final List<String> events;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a replay.
+     *
+     * @param levelId the ID of the level
+     * @param seed the seed of the refill source of the game
+     * @param initialBoard the board of the level before the game started
+     * @param events the swap templates and shuffles of the game in order
+     */
+    public Replay(int levelId, long seed, BoardSnapshot initialBoard, List<String> events) {
+        this.levelId = levelId;
+        this.seed = seed;
+        this.initialBoard = initialBoard;
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * Creates a replay from its {@code String} representation.
+     *
+     * @param replay the {@code String} representation of the replay
+     * @return the replay that was represented
+     * @throws IllegalArgumentException if the replay is malformed
+     */
+    public static Replay parse(String replay) throws IllegalArgumentException {
+        String[] lines = replay.split("\n");
+
+        if (lines.length < 3 || !lines[0].startsWith(LEVEL) || !lines[1].startsWith(SEED)
+                || !lines[2].startsWith(BOARD)) {
+            throw new IllegalArgumentException("Malformed replay header");
+        }
+
+        List<String> events = new ArrayList<>(lines.length - 3);
+        for (int i = 3; i < lines.length; i++) {
+            if (lines[i].equals(SHUFFLE)) {
+                events.add(SHUFFLE);
+            } else if (lines[i].startsWith(SWAP)) {
+                events.add(lines[i].substring(SWAP.length()));
+            } else {
+                throw new IllegalArgumentException("Malformed replay event: " + lines[i]);
+            }
+        }
+
+        try {
+            return new Replay(Integer.parseInt(lines[0].substring(LEVEL.length())),
+                    Long.parseLong(lines[1].substring(SEED.length())),
+                    BoardSnapshot.parse(lines[2].substring(BOARD.length())),
+                    events);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed replay header", ex);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 41 * hash + this.levelId;
+        hash = 41 * hash + Long.hashCode(this.seed);
+        hash = 41 * hash + this.initialBoard.hashCode();
+        hash = 41 * hash + this.events.hashCode();
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Replay other = (Replay) obj;
+        return this.levelId == other.levelId
+                && this.seed == other.seed
+                && this.initialBoard.equals(other.initialBoard)
+                && this.events.equals(other.events);
+    }
+
+    /**
+     * Returns the {@code String} representation of {@code this} instance, that can be parsed by
+     * {@link #parse(String)}.
+     *
+     * @return the {@code String} representation of {@code this} instance
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(LEVEL).append(levelId).append('\n');
+        sb.append(SEED).append(seed).append('\n');
+        sb.append(BOARD).append(initialBoard);
+        for (String event : events) {
+            sb.append('\n');
+            if (event.equals(SHUFFLE)) {
+                sb.append(SHUFFLE);
+            } else {
+                sb.append(SWAP).append(event);
+            }
+        }
+        return sb.toString();
+    }
+
+    //CHECKSTYLE:OFF
+    public int getLevelId() {
+        return levelId;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public BoardSnapshot getInitialBoard() {
+        return initialBoard;
+    }
+
+    public List<String> getEvents() {
+        return events;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,95 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for recording the events of a game, so it can be saved as a {@link Replay}.
+ *
+ * <p>
+ * The {@link CandyCrushGame} starts a new recording every time a level starts, and records the
+ * swaps and shuffles it makes. The methods are synchronized, because a shuffle may be requested by
+ * a different thread than the swaps.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class ReplayRecorder {
+
+    //CHECKSTYLE:OFF
+    private int levelId;
+    private long seed;
+    private BoardSnapshot initialBoard;
+    private final List<String> events;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a recorder with no recording started.
+     */
+    public ReplayRecorder() {
+        this.events = new ArrayList<>();
+    }
+
+    /**
+     * Starts a new recording and drops the previous events.
+     *
+     * @param levelId the ID of the level
+     * @param seed the seed of the refill source of the game
+     * @param initialBoard the board of the level before the game starts
+     */
+    public synchronized void start(int levelId, long seed, BoardSnapshot initialBoard) {
+        this.levelId = levelId;
+        this.seed = seed;
+        this.initialBoard = initialBoard;
+        this.events.clear();
+    }
+
+    /**
+     * Records a swap.
+     *
+     * @param coors the coordinates of the swapped cells
+     */
+    public synchronized void recordSwap(Integer[][] coors) {
+        events.add(coors[0][0] + "," + coors[0][1] + ";" + coors[1][0] + "," + coors[1][1]);
+    }
+
+    /**
+     * Records a shuffle of the board.
+     */
+    public synchronized void recordShuffle() {
+        events.add(Replay.SHUFFLE);
+    }
+
+    /**
+     * Returns the events recorded so far as a replay.
+     *
+     * @return the replay of the current recording
+     * @throws IllegalStateException if no recording was started yet
+     */
+    public synchronized Replay toReplay() throws IllegalStateException {
+        if (initialBoard == null) {
+            throw new IllegalStateException("No recording was started yet.");
+        }
+        return new Replay(levelId, seed, initialBoard, events);
+    }
+}
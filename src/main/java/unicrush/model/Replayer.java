@@ -0,0 +1,76 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+/**
+ * Class for playing a {@link Replay} again without any user interface.
+ *
+ * <p>
+ * The replayer builds the level from the initial board of the replay, starts it in a new
+ * {@link CandyCrushGame} with the recorded seed, and makes the recorded swaps and shuffles through
+ * the game, so the same rules apply as during the original game. Since the new candies come from
+ * a {@link RandomRefillSource} with the same seed, the board and the score will be the same at the
+ * end, too.</p>
+ *
+ * <pre>
+ *
+ *  CandyCrushGame replayed = Replayer.replay(Replay.parse(text));
+ *  int score = replayed.getPlayerScore();
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class Replayer {
+
+    //CHECKSTYLE:OFF
+    private Replayer() {
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Plays the given replay at full speed.
+     *
+     * @param replay the replay we would like to play
+     * @return the game after the last event of the replay
+     */
+    public static CandyCrushGame replay(Replay replay) {
+        BoardSnapshot board = replay.getInitialBoard();
+        Level level = new Level.Builder(replay.getLevelId(), board.getBoardSize())
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .fillBoard(board.toString())
+                .build();
+
+        CandyCrushGame game = new CandyCrushGame();
+        game.getLevels().add(level);
+        game.startLevel(level, new RandomRefillSource(replay.getSeed()));
+
+        for (String event : replay.getEvents()) {
+            if (event.equals(Replay.SHUFFLE)) {
+                game.shuffle();
+            } else {
+                game.play(Level.createCoordinates(event));
+            }
+        }
+        return game;
+    }
+}
@@ -22,6 +22,8 @@ package unicrush.model;
  * #L%
  */
 
+import java.util.List;
+import unicrush.model.db.LeaderboardEntry;
 import unicrush.model.db.ScoreEntity;
 
 /**
@@ -160,6 +162,33 @@ public class Validator {
         return found == null || userScore > found.getScore();
     }
 
+    /**
+     * Returns if the user has beaten a previous score, judged only from the best entries of the
+     * leaderboard of the level, without looking up the previous score itself.
+     *
+     * <p>
+     * If the user is on the leaderboard, the score is compared to that entry. If the user is not,
+     * but the leaderboard is full, the previous score of the user, if any, is at most the last
+     * entry, so a greater score is a new high score. A user who is not on a leaderboard that is not
+     * full has no previous score.</p>
+     *
+     * @param leaderboard the best entries of the level, before the score of the user is saved
+     * @param size the number of entries that were asked for
+     * @param userId the id of the user
+     * @param userScore the user's score
+     * @return {@code true} if the user's score is known to be greater than their previous score
+     */
+    public boolean isNewHighScore(List<LeaderboardEntry> leaderboard, int size, int userId,
+            int userScore) {
+        for (LeaderboardEntry entry : leaderboard) {
+            if (entry.getUserId() == userId) {
+                return userScore > entry.getScore();
+            }
+        }
+        return leaderboard.size() >= size && size > 0
+                && userScore > leaderboard.get(leaderboard.size() - 1).getScore();
+    }
+
     //CHECKSTYLE:OFF
     private boolean isZero(int value) {
         return value == 0;
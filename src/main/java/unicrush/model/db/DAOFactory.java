@@ -22,13 +22,18 @@ package unicrush.model.db;
  * #L%
  */
 
-import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 
 /**
  * Class for creating data access objects for a level entity.
  *
+ * <p>
+ * The factory does not share an {@code EntityManager} between the data access objects, every
+ * call of a data access object is a unit of work with its own manager, so they can be used from
+ * the loader threads and the FX thread at the same time. The connections of the managers come from
+ * a bounded pool, that is configured in the {@code persistence.xml}.</p>
+ *
  * @author Szalontai Jordán
  */
 public class DAOFactory implements AutoCloseable {
@@ -36,13 +41,13 @@ public class DAOFactory implements AutoCloseable {
     //CHECKSTYLE:OFF
     private static DAOFactory instance;
 
-    private static EntityManager entityManager;
     private static EntityManagerFactory factory;
+    private static ScoreWriter scoreWriter;
     
     static {
         instance = new DAOFactory();
         factory = Persistence.createEntityManagerFactory("UNICRUSH");
-        entityManager = factory.createEntityManager();
+        scoreWriter = new ScoreWriter(new ScoreDAOSimple(factory));
     }
     
     private DAOFactory() {
@@ -64,7 +69,7 @@ public class DAOFactory implements AutoCloseable {
      * @return an object that defines actions for level entities
      */
     public LevelDAO createLevelDAO() {
-        return new LevelDAOSimple(entityManager);
+        return new LevelDAOSimple(factory);
     }
 
     /**
@@ -73,7 +78,7 @@ public class DAOFactory implements AutoCloseable {
      * @return an object that defines actions for user entities
      */
     public UserDAO createUserDAO() {
-        return new UserDAOSimple(entityManager);
+        return new UserDAOSimple(factory);
     }
 
     /**
@@ -82,17 +87,27 @@ public class DAOFactory implements AutoCloseable {
      * @return an object that defines actions for score entities
      */
     public ScoreDAO createScoreDAO() {
-        return new ScoreDAOSimple(entityManager);
+        return new ScoreDAOSimple(factory);
+    }
+
+    /**
+     * Returns the writer that saves the scores in the background.
+     *
+     * @return the shared score writer
+     */
+    public ScoreWriter getScoreWriter() {
+        return scoreWriter;
     }
 
     /**
-     * Closes the {@code EntityManager} and the {@code EntityManagerFactory} objects.
+     * Writes the queued scores, then closes the {@code EntityManagerFactory} object, and with it
+     * the connection pool.
      *
      * @throws Exception if an error occurs during the closing process
      */
     @Override
     public void close() throws Exception {
-        entityManager.close();
+        scoreWriter.close();
         factory.close();
     }
 }
@@ -0,0 +1,117 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing a row of the leaderboard, that is a score together with the name of the user
+ * it belongs to.
+ *
+ * <p>
+ * The entries are not entities, they are created by the constructor expression of the leaderboard
+ * queries of {@link ScoreDAO}. The id of the user is kept as well, since together with the score
+ * it is the key of the entry when paging a leaderboard.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public class LeaderboardEntry {
+
+    //CHECKSTYLE:OFF
+    private final String username;
+    private final int userId;
+    private final int levelId;
+    private final int score;
+
+    public LeaderboardEntry(String username, int userId, int levelId, int score) {
+        this.username = username;
+        this.userId = userId;
+        this.levelId = levelId;
+        this.score = score;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getLevelId() {
+        return levelId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Returns the leaderboard as it will look once the given entry is saved.
+     *
+     * <p>
+     * This way a score that is still waiting in the {@link ScoreWriter} can be shown without
+     * waiting for a flush. Just like {@link ScoreDAO#saveBest(java.util.Collection)}, only the
+     * best score of the user is kept, and the entries keep the order of
+     * {@link ScoreDAO#findTopScores(int, int)}.</p>
+     *
+     * @param leaderboard the best entries of the level, in the order of the leaderboard queries
+     * @param entry the entry that is not saved yet, on the same level
+     * @param size the maximum number of entries in the result
+     * @return a new list with at most {@code size} entries
+     */
+    public static List<LeaderboardEntry> withEntry(List<LeaderboardEntry> leaderboard,
+            LeaderboardEntry entry, int size) {
+        List<LeaderboardEntry> merged = new ArrayList<>(leaderboard.size() + 1);
+        LeaderboardEntry best = entry;
+
+        for (LeaderboardEntry other : leaderboard) {
+            if (other.userId != entry.userId) {
+                merged.add(other);
+            } else if (other.score >= entry.score) {
+                best = other;
+            }
+        }
+
+        int index = 0;
+        while (index < merged.size() && isBefore(merged.get(index), best)) {
+            index++;
+        }
+        merged.add(index, best);
+        return merged.size() > size ? new ArrayList<>(merged.subList(0, size)) : merged;
+    }
+
+    @Override
+    public String toString() {
+        return username + " " + levelId + " " + score;
+    }
+
+    //CHECKSTYLE:OFF
+    private static boolean isBefore(LeaderboardEntry first, LeaderboardEntry second) {
+        return first.score > second.score
+                || first.score == second.score && first.userId < second.userId;
+    }
+    //CHECKSTYLE:ON
+}
@@ -23,50 +23,63 @@ package unicrush.model.db;
  */
 
 import java.util.List;
-import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
+import org.hibernate.SessionFactory;
 
 /**
  * Class implementing the {@code LevelDAO} interface.
  *
  * <p>
- * This class utilizes an {@code EntityManager} to do the work with the database</p>
+ * This class utilizes an {@code EntityManager} to do the work with the database, every call is a
+ * unit of work with its own manager, so the object can be used from any thread.</p>
+ *
+ * <p>
+ * The levels and the result of {@link #findAll()} are cached, and the cache is invalidated when a
+ * new level is created.</p>
  *
  * @author Szalontai Jordán
  */
 public class LevelDAOSimple implements LevelDAO {
 
     //CHECKSTYLE:OFF
-    private EntityManager em;
+    private static final String LEVELS_REGION = "unicrush.levels";
+
+    private final EntityManagerFactory factory;
     //CHECKSTYLE:ON
     
     /**
      * Constructs a data access object that utilizes the {@code EntityManager} class.
      *
-     * @param em the manager for the entities
+     * @param factory the factory of the managers for the entities
      */
-    public LevelDAOSimple(EntityManager em) {
-        this.em = em;
+    public LevelDAOSimple(EntityManagerFactory factory) {
+        this.factory = factory;
     }
 
     @Override
     public LevelEntity findLevel(int id) {
-        return em.find(LevelEntity.class, id);
+        return UnitOfWork.read(factory, em -> em.find(LevelEntity.class, id));
     }
 
     @Override
     public List<LevelEntity> findAll() {
-        TypedQuery<LevelEntity> query
-                = em.createQuery("SELECT l FROM LevelEntity l ORDER BY l.levelId", LevelEntity.class);
+        return UnitOfWork.read(factory, em -> {
+            TypedQuery<LevelEntity> query = em.createQuery(
+                    "SELECT l FROM LevelEntity l ORDER BY l.levelId", LevelEntity.class);
 
-        return query.getResultList();
+            query.setHint("org.hibernate.cacheable", true);
+            query.setHint("org.hibernate.cacheRegion", LEVELS_REGION);
+            return query.getResultList();
+        });
     }
 
     @Override
     public void create(int id, int size, String walls, int score, int steps) {
-        em.getTransaction().begin();
-        em.persist(new LevelEntity(id, size, walls, score, steps));
-        em.getTransaction().commit();
+        UnitOfWork.write(factory, em -> em.persist(new LevelEntity(id, size, walls, score, steps)));
+
+        factory.getCache().evict(LevelEntity.class, id);
+        factory.unwrap(SessionFactory.class).getCache().evictQueryRegion(LEVELS_REGION);
     }
 
 }
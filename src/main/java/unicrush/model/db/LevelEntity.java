@@ -22,6 +22,7 @@ package unicrush.model.db;
  * #L%
  */
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -30,9 +31,14 @@ import javax.persistence.Table;
 /**
  * Class for a Level entity.
  *
+ * <p>
+ * The levels are read by every login, but they almost never change, so they are kept in the
+ * second-level cache.</p>
+ *
  * @author Szalontai Jordán
  */
 @Entity
+@Cacheable
 @Table(name = "UC_LEVEL")
 public class LevelEntity {
 
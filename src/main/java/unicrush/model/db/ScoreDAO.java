@@ -23,6 +23,7 @@ package unicrush.model.db;
  */
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface describing actions that can be done with score entities.
@@ -50,6 +51,18 @@ public interface ScoreDAO {
      */
     public void update(int userId, int levelId, int score);
 
+    /**
+     * Saves the given scores in one transaction, a score entity is created if it does not exist
+     * yet, otherwise it is only updated if the given score is higher.
+     *
+     * <p>
+     * The existing entities are loaded together, not one by one for each score.</p>
+     *
+     * @param scores the scores mapped by the keys of the entities
+     * @see ScoreWriter
+     */
+    public void saveBest(Map<ScoreKey, Integer> scores);
+
     /**
      * Returns a plain old java object that represents a score entity in the database, identified by
      * two fields.
@@ -66,4 +79,33 @@ public interface ScoreDAO {
      * @return a list containing score entities
      */
     public List<ScoreEntity> findAll();
+
+    /**
+     * Returns the best scores on a level with the names of their users, ordered by the score in
+     * descending order, ties are broken by the id of the user.
+     *
+     * @param levelId the id of the level
+     * @param k the maximal number of entries returned
+     * @return a list containing at most {@code k} entries of the leaderboard of the level
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    public List<LeaderboardEntry> findTopScores(int levelId, int k);
+
+    /**
+     * Returns the next page of the leaderboard of a level, that is the entries following the given
+     * one in the order of {@link #findTopScores(int, int)}.
+     *
+     * <p>
+     * The page is found by its key (the score and the id of the user of the last entry on the
+     * previous page) instead of an offset, so the database does not have to skip the rows of the
+     * previous pages.</p>
+     *
+     * @param levelId the id of the level
+     * @param last the last entry of the previous page
+     * @param limit the maximal number of entries returned
+     * @return a list containing at most {@code limit} entries following {@code last}
+     * @throws IllegalArgumentException if {@code last} is {@code null} or {@code limit} is not
+     * positive
+     */
+    public List<LeaderboardEntry> findScoresAfter(int levelId, LeaderboardEntry last, int limit);
 }
@@ -22,61 +22,177 @@ package unicrush.model.db;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
 
 /**
  * Class implementing the {@code ScoreDAO} interface.
  *
  * <p>
- * This class utilizes an {@code EntityManager} to do the work with the database</p>
+ * This class utilizes an {@code EntityManager} to do the work with the database, every call is a
+ * unit of work with its own manager, so the object can be used from any thread.</p>
  *
  * @author Szalontai Jordán
  */
 public class ScoreDAOSimple implements ScoreDAO {
 
     //CHECKSTYLE:OFF
-    private EntityManager em;
+    private static final int MAX_KEYS_PER_QUERY = 128;
+
+    private static final String ENTRIES = "SELECT NEW unicrush.model.db.LeaderboardEntry("
+            + "u.username, s.userId, s.levelId, s.score)"
+            + " FROM ScoreEntity s, UserEntity u WHERE u.id = s.userId";
+
+    private final EntityManagerFactory factory;
     //CHECKSTYLE:ON
 
     /**
      * Constructs a data access object that utilizes the {@code EntityManager} class.
      *
-     * @param em the manager for the entities
+     * @param factory the factory of the managers for the entities
      */
-    public ScoreDAOSimple(EntityManager em) {
-        this.em = em;
+    public ScoreDAOSimple(EntityManagerFactory factory) {
+        this.factory = factory;
     }
 
     @Override
     public void create(int userId, int levelId, int score) {
-        em.getTransaction().begin();
-        em.persist(new ScoreEntity(userId, levelId, score));
-        em.getTransaction().commit();
+        UnitOfWork.write(factory, em -> em.persist(new ScoreEntity(userId, levelId, score)));
     }
 
     @Override
     public void update(int userId, int levelId, int score) {
-        ScoreEntity se = find(userId, levelId);
-        if (score > se.getScore()) {
-            em.getTransaction().begin();
-            se.setScore(score);
-            em.getTransaction().commit();
+        UnitOfWork.write(factory, em -> {
+            ScoreEntity se = em.find(ScoreEntity.class, new ScoreKey(userId, levelId));
+
+            if (score > se.getScore()) {
+                se.setScore(score);
+            }
+        });
+    }
+
+    @Override
+    public void saveBest(Map<ScoreKey, Integer> scores) {
+        if (scores.isEmpty()) {
+            return;
         }
+
+        UnitOfWork.write(factory, em -> {
+            Map<ScoreKey, ScoreEntity> existing = findExisting(em, new ArrayList<>(scores.keySet()));
+
+            scores.forEach((key, score) -> {
+                ScoreEntity se = existing.get(key);
+
+                if (se == null) {
+                    em.persist(new ScoreEntity(key.userId, key.levelId, score));
+                } else if (score > se.getScore()) {
+                    se.setScore(score);
+                }
+            });
+        });
     }
 
     @Override
     public ScoreEntity find(int userId, int levelId) {
-        return em.find(ScoreEntity.class, new ScoreKey(userId, levelId));
+        return UnitOfWork.read(factory,
+                em -> em.find(ScoreEntity.class, new ScoreKey(userId, levelId)));
     }
 
     @Override
     public List<ScoreEntity> findAll() {
-        TypedQuery<ScoreEntity> query
-                = em.createQuery("SELECT s FROM ScoreEntity s", ScoreEntity.class);
+        return UnitOfWork.read(factory, em -> {
+            TypedQuery<ScoreEntity> query
+                    = em.createQuery("SELECT s FROM ScoreEntity s", ScoreEntity.class);
 
-        return query.getResultList();
+            return query.getResultList();
+        });
     }
 
+    @Override
+    public List<LeaderboardEntry> findTopScores(int levelId, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+
+        return UnitOfWork.read(factory, em -> {
+            TypedQuery<LeaderboardEntry> query = em.createQuery(ENTRIES
+                    + " AND s.levelId = :levelId"
+                    + " ORDER BY s.score DESC, s.userId", LeaderboardEntry.class);
+
+            return query.setParameter("levelId", levelId)
+                    .setMaxResults(k)
+                    .getResultList();
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> findScoresAfter(int levelId, LeaderboardEntry last, int limit) {
+        if (last == null) {
+            throw new IllegalArgumentException("The last entry must not be null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive");
+        }
+
+        return UnitOfWork.read(factory, em -> {
+            TypedQuery<LeaderboardEntry> query = em.createQuery(ENTRIES
+                    + " AND s.levelId = :levelId"
+                    + " AND (s.score < :score OR (s.score = :score AND s.userId > :userId))"
+                    + " ORDER BY s.score DESC, s.userId", LeaderboardEntry.class);
+
+            return query.setParameter("levelId", levelId)
+                    .setParameter("score", last.getScore())
+                    .setParameter("userId", last.getUserId())
+                    .setMaxResults(limit)
+                    .getResultList();
+        });
+    }
+
+    //CHECKSTYLE:OFF
+    private static Map<ScoreKey, ScoreEntity> findExisting(EntityManager em, List<ScoreKey> keys) {
+        Map<ScoreKey, ScoreEntity> existing = new HashMap<>();
+
+        // every chunk loads exactly the rows of its keys, each key is its own pair of predicates
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_QUERY) {
+            List<ScoreKey> chunk
+                    = keys.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, keys.size()));
+            int padded = paddedSize(chunk.size());
+            TypedQuery<ScoreEntity> query = em.createQuery(findByKeys(padded), ScoreEntity.class);
+
+            for (int k = 0; k < padded; k++) {
+                // the padding repeats the last key, so a few query strings serve every chunk size
+                ScoreKey key = chunk.get(Math.min(k, chunk.size() - 1));
+
+                query.setParameter("userId" + k, key.userId)
+                        .setParameter("levelId" + k, key.levelId);
+            }
+            query.getResultList()
+                    .forEach(se -> existing.put(new ScoreKey(se.getUserId(), se.getLevelId()), se));
+        }
+        return existing;
+    }
+
+    private static int paddedSize(int size) {
+        int padded = Integer.highestOneBit(size);
+        return Math.min(padded == size ? size : padded << 1, MAX_KEYS_PER_QUERY);
+    }
+
+    private static String findByKeys(int size) {
+        StringBuilder jpql = new StringBuilder("SELECT s FROM ScoreEntity s WHERE ");
+
+        for (int k = 0; k < size; k++) {
+            if (k > 0) {
+                jpql.append(" OR ");
+            }
+            jpql.append("(s.userId = :userId").append(k)
+                    .append(" AND s.levelId = :levelId").append(k).append(')');
+        }
+        return jpql.toString();
+    }
+    //CHECKSTYLE:ON
 }
@@ -25,6 +25,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 /**
@@ -33,10 +34,21 @@ import javax.persistence.Table;
  * @author Szalontai Jordán
  */
 @Entity
-@Table(name = "UC_SCORE")
+@Table(name = "UC_SCORE", indexes = @Index(name = ScoreEntity.LEVEL_SCORE_INDEX,
+        columnList = "levelId, score DESC, userId"))
 @IdClass(ScoreKey.class)
 public class ScoreEntity {
 
+    /**
+     * The name of the index on the level, the score in descending order and the user, that the
+     * per-level leaderboard queries of {@link ScoreDAO} are served from.
+     *
+     * <p>
+     * The schema generator of Hibernate 5.0 drops the ordering of the columns, so the index of the
+     * database should be created with the statement in the README.</p>
+     */
+    public static final String LEVEL_SCORE_INDEX = "UC_SCORE_LEVEL_SCORE_IDX";
+
     //CHECKSTYLE:OFF
     @Id
     @Column(name = "userId")
@@ -0,0 +1,288 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class for saving scores in the background, in front of a {@link ScoreDAO}.
+ *
+ * <p>
+ * The submitted scores are queued in memory and merged by their {@link ScoreKey}, so if a player
+ * submits more scores on the same level before they are written, only the best one survives. The
+ * queue is flushed on a background thread periodically, or as soon as it holds a full batch, and
+ * every flush saves the whole batch in one transaction with {@link ScoreDAO#saveBest(Map)}.</p>
+ *
+ * <pre>
+ *
+ *  ScoreWriter writer = DAOFactory.getInstance().getScoreWriter();
+ *
+ *  writer.submit(userId, levelId, score);
+ *  writer.flush().join(); // only if we have to read the score back
+ * </pre>
+ *
+ * <p>
+ * If a flush fails, the future returned by {@link #flush()} completes exceptionally, and the scores
+ * of the batch are merged back into the queue and written with the next flush. A score that could
+ * not be written in {@code maxAttempts} flushes is not retried any more, it is moved to the failed
+ * scores, see {@link #getFailedScores()}.</p>
+ *
+ * <p>
+ * Once the writer is closed, it does not accept scores or flushes any more.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public class ScoreWriter implements AutoCloseable {
+
+    /**
+     * The default time between two periodic flushes in milliseconds.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 2000;
+
+    /**
+     * The default number of scores that triggers a flush.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * The default number of flushes a score is tried to be written in.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    //CHECKSTYLE:OFF
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScoreWriter.class);
+
+    private final ScoreDAO scoreDao;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ScheduledExecutorService flusher;
+    private Map<ScoreKey, Integer> pending = new HashMap<>();
+    private final Map<ScoreKey, Integer> attempts = new HashMap<>();
+    private final Map<ScoreKey, Integer> failed = new HashMap<>();
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a writer with the default flush interval and batch size.
+     *
+     * @param scoreDao the data access object the scores are saved with
+     */
+    public ScoreWriter(ScoreDAO scoreDao) {
+        this(scoreDao, DEFAULT_FLUSH_INTERVAL, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a writer with the default number of attempts.
+     *
+     * @param scoreDao the data access object the scores are saved with
+     * @param flushInterval the time between two periodic flushes in milliseconds
+     * @param batchSize the number of queued scores that triggers a flush
+     * @throws IllegalArgumentException if the interval or the batch size is not positive
+     */
+    public ScoreWriter(ScoreDAO scoreDao, long flushInterval, int batchSize)
+            throws IllegalArgumentException {
+        this(scoreDao, flushInterval, batchSize, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Constructs a writer.
+     *
+     * @param scoreDao the data access object the scores are saved with
+     * @param flushInterval the time between two periodic flushes in milliseconds
+     * @param batchSize the number of queued scores that triggers a flush
+     * @param maxAttempts the number of flushes a score is tried to be written in
+     * @throws IllegalArgumentException if the interval, the batch size or the number of attempts is
+     * not positive
+     */
+    public ScoreWriter(ScoreDAO scoreDao, long flushInterval, int batchSize, int maxAttempts)
+            throws IllegalArgumentException {
+        if (flushInterval < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Invalid flush interval, batch size or attempts!");
+        }
+
+        this.scoreDao = scoreDao;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "DB Score Writer Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a periodic task that throws is not run again, so the failures are only logged
+        flusher.scheduleWithFixedDelay(this::writeQuietly, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a score of a user on a level, it is saved with the next flush.
+     *
+     * @param userId the id of the user
+     * @param levelId the id of the level
+     * @param score the score of the user on the level they played
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void submit(int userId, int levelId, int score) throws IllegalStateException {
+        int size;
+
+        synchronized (this) {
+            checkOpen();
+            pending.merge(new ScoreKey(userId, levelId), score, Math::max);
+            size = pending.size();
+        }
+        if (size >= batchSize) {
+            try {
+                flusher.execute(this::writeQuietly);
+            } catch (RejectedExecutionException ex) {
+                // the writer was closed meanwhile, and close writes the queue itself
+                LOGGER.debug("Writer closed before the batch was flushed");
+            }
+        }
+    }
+
+    /**
+     * Writes the queued scores on the background thread.
+     *
+     * @return a future that completes when the scores queued before this call are written, or
+     * completes exceptionally if the writing failed, in that case the scores are put back into the
+     * queue, or moved to the failed scores if they ran out of attempts
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Void> flush() throws IllegalStateException {
+        try {
+            return CompletableFuture.runAsync(this::write, flusher);
+        } catch (RejectedExecutionException ex) {
+            throw new IllegalStateException("The score writer is closed", ex);
+        }
+    }
+
+    /**
+     * Returns the number of the scores that are waiting to be written.
+     *
+     * @return the number of the queued scores
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the scores that could not be written in the maximum number of attempts, they are not
+     * retried.
+     *
+     * @return a copy of the failed scores mapped by the keys of the entities
+     */
+    public synchronized Map<ScoreKey, Integer> getFailedScores() {
+        return new HashMap<>(failed);
+    }
+
+    /**
+     * Writes the queued scores, and stops the background thread. If the last write fails, the
+     * scores that are left are logged.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            flusher.shutdown();
+        }
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeQuietly();
+
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                LOGGER.error("Closed with {} unsaved scores: {}", pending.size(), pending.keySet());
+            }
+        }
+    }
+
+    //CHECKSTYLE:OFF
+    private void write() {
+        Map<ScoreKey, Integer> batch;
+
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        try {
+            scoreDao.saveBest(batch);
+            LOGGER.debug("Saved {} scores", batch.size());
+        } catch (RuntimeException ex) {
+            requeue(batch, ex);
+            throw ex;
+        }
+
+        synchronized (this) {
+            batch.keySet().forEach(attempts::remove);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (RuntimeException ex) {
+            // already logged by requeue
+        }
+    }
+
+    private synchronized void requeue(Map<ScoreKey, Integer> batch, RuntimeException ex) {
+        int retried = 0;
+
+        for (Map.Entry<ScoreKey, Integer> entry : batch.entrySet()) {
+            ScoreKey key = entry.getKey();
+
+            if (attempts.merge(key, 1, Integer::sum) >= maxAttempts) {
+                attempts.remove(key);
+                failed.merge(key, entry.getValue(), Math::max);
+                LOGGER.error("Giving up the score of user {} on level {}: {}",
+                        key.userId, key.levelId, ex.getMessage());
+            } else {
+                pending.merge(key, entry.getValue(), Math::max);
+                retried++;
+            }
+        }
+        if (retried > 0) {
+            LOGGER.warn("Could not save {} scores, retrying with the next flush: {}",
+                    retried, ex.getMessage());
+        }
+    }
+
+    private void checkOpen() throws IllegalStateException {
+        if (flusher.isShutdown()) {
+            throw new IllegalStateException("The score writer is closed");
+        }
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,87 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+/**
+ * Class for running a unit of work with its own {@code EntityManager}.
+ *
+ * <p>
+ * An {@code EntityManager} is not thread-safe, so the data access objects do not keep one, instead
+ * every call opens a new manager, does its work and closes the manager, which gives its connection
+ * back to the pool. The returned entities are detached.</p>
+ *
+ * @author Szalontai Jordán
+ */
+final class UnitOfWork {
+
+    //CHECKSTYLE:OFF
+    private UnitOfWork() {
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Runs a read-only unit of work.
+     *
+     * @param <T> the type of the result
+     * @param factory the factory of the entity managers
+     * @param work the work that reads the database
+     * @return the result of the work
+     */
+    static <T> T read(EntityManagerFactory factory, Function<EntityManager, T> work) {
+        EntityManager em = factory.createEntityManager();
+
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Runs a unit of work in a transaction, that is rolled back if the work fails.
+     *
+     * @param factory the factory of the entity managers
+     * @param work the work that changes the database
+     */
+    static void write(EntityManagerFactory factory, Consumer<EntityManager> work) {
+        EntityManager em = factory.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+
+        try {
+            transaction.begin();
+            work.accept(em);
+            transaction.commit();
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            em.close();
+        }
+    }
+}
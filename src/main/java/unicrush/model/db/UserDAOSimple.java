@@ -23,30 +23,31 @@ package unicrush.model.db;
  */
 
 import java.util.List;
-import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
 
 /**
  * Class implementing the {@code UserDAO} interface.
  *
  * <p>
- * This class utilizes an {@code EntityManager} to do the work with the database</p>
+ * This class utilizes an {@code EntityManager} to do the work with the database, every call is a
+ * unit of work with its own manager, so the object can be used from any thread.</p>
  *
  * @author Szalontai Jordán
  */
 public class UserDAOSimple implements UserDAO {
 
     //CHECKSTYLE:OFF
-    private EntityManager em;
+    private final EntityManagerFactory factory;
     //CHECKSTYLE:ON
 
     /**
      * Constructs a data access object that utilizes the {@code EntityManager} class.
      *
-     * @param em the manager for the entities
+     * @param factory the factory of the managers for the entities
      */
-    public UserDAOSimple(EntityManager em) {
-        this.em = em;
+    public UserDAOSimple(EntityManagerFactory factory) {
+        this.factory = factory;
     }
 
     @Override
@@ -57,22 +58,23 @@ public class UserDAOSimple implements UserDAO {
             id = (int) (Math.random() * 1000);
         } while (get(id) != null);
 
-        em.getTransaction().begin();
-        em.persist(new UserEntity(id, username));
-        em.getTransaction().commit();
+        UserEntity user = new UserEntity(id, username);
+        UnitOfWork.write(factory, em -> em.persist(user));
     }
 
     @Override
     public List<UserEntity> findByName(String username) {
-        TypedQuery<UserEntity> q = em.createQuery("SELECT u FROM UserEntity u WHERE u.username='"
-                + username + "'", UserEntity.class);
+        return UnitOfWork.read(factory, em -> {
+            TypedQuery<UserEntity> q = em.createQuery("SELECT u FROM UserEntity u WHERE u.username='"
+                    + username + "'", UserEntity.class);
 
-        return q.getResultList();
+            return q.getResultList();
+        });
     }
 
     @Override
     public UserEntity get(int id) {
-        return em.find(UserEntity.class, id);
+        return UnitOfWork.read(factory, em -> em.find(UserEntity.class, id));
     }
 
 }
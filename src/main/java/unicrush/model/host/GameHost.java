@@ -0,0 +1,322 @@
+package unicrush.model.host;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import unicrush.model.BoardSnapshot;
+import unicrush.model.HintCache;
+import unicrush.model.Level;
+import unicrush.model.LevelDefinition;
+import unicrush.model.Replay;
+
+/**
+ * Class for hosting many independent game sessions in one JVM, without any user interface.
+ *
+ * <p>
+ * The host has a fixed number of worker threads, each with its own bounded command queue. Every
+ * session is bound to one of the workers when it is opened, it is created and all of its commands
+ * run on that worker in the order they were submitted, so a session is never touched by two
+ * threads and needs no locking. The sessions of different workers run in parallel.</p>
+ *
+ * <p>
+ * Each worker has its own {@link HintCache}, that is shared by the sessions of the worker. A
+ * cache is only used on the thread of its worker, so the hint lookups need no locking.</p>
+ *
+ * <pre>
+ *
+ *  try (GameHost host = new GameHost()) {
+ *      long session = host.openSession(level, 42L).join();
+ *
+ *      MoveResult result = host.play(session, new Integer[][]{{1, 2}, {1, 3}}).join();
+ *      Replay replay = host.closeSession(session).join();
+ *  }
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class GameHost implements AutoCloseable {
+
+    /**
+     * The capacity of the hint cache of a worker, that is shared by the sessions of the worker.
+     */
+    public static final int HINT_CACHE_CAPACITY = 4096;
+
+    /**
+     * The default number of commands that may wait in the queue of a worker.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    //CHECKSTYLE:OFF
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameHost.class);
+
+    private final ExecutorService[] workers;
+    private final HintCache[] hintCaches;
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a host with one worker per available processor.
+     */
+    public GameHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a host with the given number of workers, with queues of
+     * {@value #DEFAULT_QUEUE_CAPACITY} commands.
+     *
+     * @param workers the number of worker threads
+     * @throws IllegalArgumentException if the number of workers is less than one
+     */
+    public GameHost(int workers) throws IllegalArgumentException {
+        this(workers, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a host with the given number of workers.
+     *
+     * <p>
+     * When the queue of a worker is full, the commands submitted to its sessions are not queued,
+     * their futures fail with a {@code RejectedExecutionException} instead, so a client that
+     * floods the host cannot make the queues grow without a limit.</p>
+     *
+     * @param workers the number of worker threads
+     * @param queueCapacity the number of commands that may wait in the queue of a worker
+     * @throws IllegalArgumentException if the number of workers or the capacity is less than one
+     */
+    public GameHost(int workers, int queueCapacity) throws IllegalArgumentException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid queue capacity: " + queueCapacity);
+        }
+
+        this.workers = new ExecutorService[workers];
+        this.hintCaches = new HintCache[workers];
+        for (int i = 0; i < workers; i++) {
+            this.hintCaches[i] = new HintCache(HINT_CACHE_CAPACITY);
+            String name = "unicrush-host-" + i;
+            this.workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), task -> {
+                        Thread thread = new Thread(task, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    /**
+     * Opens a new session on the level.
+     *
+     * @param level the level that is played, it is not changed by the session
+     * @param seed the seed of the session
+     * @return the future ID of the new session
+     * @see #openSession(unicrush.model.LevelDefinition, long)
+     */
+    public CompletableFuture<Long> openSession(Level level, long seed) {
+        return openSession(level.getDefinition(), seed);
+    }
+
+    /**
+     * Opens a new session on the level definition, the definition is shared by all the sessions
+     * opened on it, only the board is owned by the session.
+     *
+     * <p>
+     * The session is created on its worker, just like the commands that follow, so its board is
+     * never touched by another thread. Commands can be submitted to the session once the
+     * returned future is complete.</p>
+     *
+     * @param definition the definition of the level that is played
+     * @param seed the seed of the session
+     * @return the future ID of the new session
+     */
+    public CompletableFuture<Long> openSession(LevelDefinition definition, long seed) {
+        long id = nextId.incrementAndGet();
+        CompletableFuture<Long> opened = new CompletableFuture<>();
+
+        execute(workerOf(id), opened, () -> {
+            sessions.put(id, new GameSession(id, definition, seed, hintCaches[indexOf(id)]));
+            LOGGER.debug("Opened session {} on level {}", id, definition.getID());
+            return id;
+        });
+        return opened;
+    }
+
+    /**
+     * Submits a command to a session, the command runs on the worker of the session after the
+     * commands submitted earlier.
+     *
+     * @param <T> the type of the result of the command
+     * @param sessionId the ID of the session
+     * @param command the command, it must not keep a reference to the session
+     * @return the future result of the command, it fails with a {@code RejectedExecutionException}
+     * if the queue of the worker is full or the host is closed
+     * @throws IllegalArgumentException if there is no open session with the ID
+     */
+    public <T> CompletableFuture<T> submit(long sessionId, Function<GameSession, T> command)
+            throws IllegalArgumentException {
+        GameSession session = getSession(sessionId);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        execute(workerOf(sessionId), result, () -> command.apply(session));
+        return result;
+    }
+
+    /**
+     * Swaps two candies in a session.
+     *
+     * @param sessionId the ID of the session
+     * @param coors an array representing the coordinates of the candies
+     * @return the future outcome of the move
+     * @throws IllegalArgumentException if there is no open session with the ID
+     */
+    public CompletableFuture<MoveResult> play(long sessionId, Integer[][] coors)
+            throws IllegalArgumentException {
+        return submit(sessionId, session -> session.play(coors));
+    }
+
+    /**
+     * Shuffles the board of a session.
+     *
+     * @param sessionId the ID of the session
+     * @return the future board after the shuffle
+     * @throws IllegalArgumentException if there is no open session with the ID
+     */
+    public CompletableFuture<BoardSnapshot> shuffle(long sessionId)
+            throws IllegalArgumentException {
+        return submit(sessionId, GameSession::shuffle);
+    }
+
+    /**
+     * Looks for an available move in a session.
+     *
+     * <p>
+     * The hint leaves the worker of the session, so the caller gets its own copy of the array
+     * kept in the hint cache of the worker.</p>
+     *
+     * @param sessionId the ID of the session
+     * @return the future coordinates of the box in which a move is possible
+     * @throws IllegalArgumentException if there is no open session with the ID
+     */
+    public CompletableFuture<int[]> hint(long sessionId) throws IllegalArgumentException {
+        return submit(sessionId, session -> session.getHint().clone());
+    }
+
+    /**
+     * Closes a session, the commands submitted earlier still run.
+     *
+     * <p>
+     * If the queue of the worker is full, the returned future fails and the session stays
+     * open.</p>
+     *
+     * @param sessionId the ID of the session
+     * @return the future replay of the session
+     * @throws IllegalArgumentException if there is no open session with the ID
+     */
+    public CompletableFuture<Replay> closeSession(long sessionId) throws IllegalArgumentException {
+        GameSession session = getSession(sessionId);
+        CompletableFuture<Replay> replay = new CompletableFuture<>();
+
+        if (execute(workerOf(sessionId), replay, session::getReplay)) {
+            sessions.remove(sessionId);
+            LOGGER.debug("Closed session {}", sessionId);
+        }
+        return replay;
+    }
+
+    /**
+     * Returns the number of the open sessions.
+     *
+     * @return the number of the open sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the workers after the submitted commands have run, and waits for them to finish.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        sessions.clear();
+    }
+
+    //CHECKSTYLE:OFF
+    private GameSession getSession(long sessionId) throws IllegalArgumentException {
+        GameSession session = sessions.get(sessionId);
+
+        if (session == null) {
+            throw new IllegalArgumentException("No open session: " + sessionId);
+        }
+        return session;
+    }
+
+    private static <T> boolean execute(ExecutorService worker, CompletableFuture<T> future,
+            Supplier<T> task) {
+        try {
+            worker.execute(() -> {
+                try {
+                    future.complete(task.get());
+                } catch (RuntimeException | Error ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            future.completeExceptionally(ex);
+            return false;
+        }
+    }
+
+    private ExecutorService workerOf(long sessionId) {
+        return workers[indexOf(sessionId)];
+    }
+
+    private int indexOf(long sessionId) {
+        return (int) Long.remainderUnsigned(sessionId, workers.length);
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,186 @@
+package unicrush.model.host;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import unicrush.model.BoardSnapshot;
+import unicrush.model.CandyCrushGame;
+import unicrush.model.CascadeStep;
+import unicrush.model.HintCache;
+import unicrush.model.Level;
+import unicrush.model.LevelDefinition;
+import unicrush.model.RandomRefillSource;
+import unicrush.model.Replay;
+import unicrush.model.Validator;
+
+/**
+ * Class representing the game of one player on a level, without any user interface.
+ *
+ * <p>
+ * The session follows the rules of the game scene: a move that makes a pop costs a step, a swap
+ * that is not possible is ignored, and the game ends when the score to complete is reached or
+ * there are no more steps.</p>
+ *
+ * <p>
+ * A session is not thread-safe. The sessions of a {@link GameHost} are confined to one worker
+ * thread of the host, and they must only be touched through the commands submitted to the
+ * host.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class GameSession {
+
+    //CHECKSTYLE:OFF
+    private final long id;
+    private final CandyCrushGame game;
+    private final Validator validator;
+    private int remainingSteps;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a session with a new board of the level definition, the candies of the board and
+     * the ones falling in are generated from the seed.
+     *
+     * @param id the ID of the session
+     * @param definition the definition of the level that is played, it is shared with other sessions
+     * @param seed the seed of the session
+     */
+    public GameSession(long id, LevelDefinition definition, long seed) {
+        this(id, definition, seed, null);
+    }
+
+    /**
+     * Constructs a session that looks up the hints in the given cache, the cache must only be
+     * shared by sessions confined to the same thread.
+     *
+     * @param id the ID of the session
+     * @param definition the definition of the level that is played, it is shared with other sessions
+     * @param seed the seed of the session
+     * @param hintCache the cache of the hints, or {@code null} if the session has its own
+     */
+    GameSession(long id, LevelDefinition definition, long seed, HintCache hintCache) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Level board = definition.newLevel(random.nextLong());
+
+        this.id = id;
+        this.game = new CandyCrushGame();
+        this.validator = Validator.getInstance();
+        this.remainingSteps = board.getAvailableSteps();
+
+        if (hintCache != null) {
+            game.getManager().setHintCache(hintCache);
+        }
+        game.getLevels().add(board);
+        game.startLevel(board, new RandomRefillSource(random.nextLong()));
+    }
+
+    /**
+     * Swaps two candies and processes the board.
+     *
+     * @param coors an array representing the coordinates of the candies
+     * @return the outcome of the move
+     */
+    public MoveResult play(Integer[][] coors) {
+        if (isEnded() || !game.getManager().canSwap(coors)) {
+            return new MoveResult(Collections.emptyList(), 0, game.getPlayerScore(),
+                    remainingSteps, isEnded());
+        }
+
+        int before = game.getPlayerScore();
+        List<CascadeStep> steps = game.play(coors);
+
+        if (!steps.isEmpty()) {
+            remainingSteps--;
+        }
+        return new MoveResult(steps, game.getPlayerScore() - before, game.getPlayerScore(),
+                remainingSteps, isEnded());
+    }
+
+    /**
+     * Shuffles the board, it does not cost a step.
+     *
+     * @return the new board
+     */
+    public BoardSnapshot shuffle() {
+        game.shuffle();
+        return getBoard();
+    }
+
+    /**
+     * Returns the coordinates of a box, in which a move is possible.
+     *
+     * @return the coordinates of the box, an empty array if there are not any possible moves, it is
+     * shared with the hint cache of the session, so it must be treated as read-only
+     * @see unicrush.model.LevelManager#findMoveArea()
+     */
+    public int[] getHint() {
+        return game.getManager().findMoveArea();
+    }
+
+    /**
+     * Returns if the game of the session has ended.
+     *
+     * @return {@code true} if the score to complete was reached or there are no more steps
+     */
+    public boolean isEnded() {
+        return validator.isEndGameSituation(game, remainingSteps);
+    }
+
+    /**
+     * Returns the current board of the session.
+     *
+     * @return the snapshot of the board
+     */
+    public BoardSnapshot getBoard() {
+        return game.getCurrentLevel().getSnapshot();
+    }
+
+    /**
+     * Returns the record of the session, that can be replayed.
+     *
+     * @return the replay of the session so far
+     */
+    public Replay getReplay() {
+        return game.getReplay();
+    }
+
+    //CHECKSTYLE:OFF
+    public long getId() {
+        return id;
+    }
+
+    public CandyCrushGame getGame() {
+        return game;
+    }
+
+    public int getScore() {
+        return game.getPlayerScore();
+    }
+
+    public int getRemainingSteps() {
+        return remainingSteps;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,104 @@
+package unicrush.model.host;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import unicrush.model.CascadeStep;
+
+/**
+ * Class representing the outcome of a move played in a {@link GameSession}.
+ *
+ * <pre>
+ * Example of the {@code String} representation:
+ *
+ *     3 cascade steps, +540, score 1260, 17 steps left
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class MoveResult {
+
+    //CHECKSTYLE:OFF
+    private final List<CascadeStep> steps;
+    private final int gained;
+    private final int score;
+    private final int remainingSteps;
+    private final boolean ended;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a result.
+     *
+     * @param steps the changes of the board, empty if the move did not make a pop
+     * @param gained the score the move was worth
+     * @param score the score of the player after the move
+     * @param remainingSteps the steps the player has left after the move
+     * @param ended {@code true} if the game ended with the move
+     */
+    public MoveResult(List<CascadeStep> steps, int gained, int score, int remainingSteps,
+            boolean ended) {
+        this.steps = Collections.unmodifiableList(steps);
+        this.gained = gained;
+        this.score = score;
+        this.remainingSteps = remainingSteps;
+        this.ended = ended;
+    }
+
+    /**
+     * Returns if the move made a pop, that is if it cost a step.
+     *
+     * @return {@code true} if the move changed the board
+     */
+    public boolean isScoring() {
+        return !steps.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return steps.size() + " cascade steps, +" + gained + ", score " + score + ", "
+                + remainingSteps + " steps left" + (ended ? ", ended" : "");
+    }
+
+    //CHECKSTYLE:OFF
+    public List<CascadeStep> getSteps() {
+        return steps;
+    }
+
+    public int getGained() {
+        return gained;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRemainingSteps() {
+        return remainingSteps;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,60 @@
+package unicrush.model.jfr;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Enum for the phases of a move in the game engine, each phase has its own flight recorder event.
+ *
+ * @author Szalontai Jordán
+ * @see PhaseRecorder
+ */
+public enum EnginePhase {
+    /**
+     * Swapping two candies on the board.
+     */
+    SWAP,
+    /**
+     * Marking the candies to pop.
+     */
+    MARK,
+    /**
+     * Popping the marked candies.
+     */
+    POP,
+    /**
+     * Moving the candies down to the empty cells.
+     */
+    GRAVITY,
+    /**
+     * Filling up the empty cells on the top of the columns.
+     */
+    REFILL,
+    /**
+     * Capturing the board for the view, as a snapshot or a cascade step.
+     */
+    STATE_CAPTURE,
+    /**
+     * Searching for an available move.
+     */
+    HINT_SEARCH
+}
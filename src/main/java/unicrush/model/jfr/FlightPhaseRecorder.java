@@ -0,0 +1,65 @@
+package unicrush.model.jfr;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Recorder that writes the phases as flight recorder events.
+ *
+ * <p>
+ * This class is only loaded if the {@code jdk.jfr} API is available.</p>
+ *
+ * @author Szalontai Jordán
+ */
+final class FlightPhaseRecorder extends PhaseRecorder {
+
+    //CHECKSTYLE:OFF
+    private final PhaseEvent[] events = new PhaseEvent[EnginePhase.values().length];
+
+    FlightPhaseRecorder() {
+        events[EnginePhase.SWAP.ordinal()] = new SwapEvent();
+        events[EnginePhase.MARK.ordinal()] = new MarkEvent();
+        events[EnginePhase.POP.ordinal()] = new PopEvent();
+        events[EnginePhase.GRAVITY.ordinal()] = new GravityEvent();
+        events[EnginePhase.REFILL.ordinal()] = new RefillEvent();
+        events[EnginePhase.STATE_CAPTURE.ordinal()] = new StateCaptureEvent();
+        events[EnginePhase.HINT_SEARCH.ordinal()] = new HintSearchEvent();
+    }
+    //CHECKSTYLE:ON
+
+    @Override
+    public void begin(EnginePhase phase) {
+        events[phase.ordinal()].begin();
+    }
+
+    @Override
+    public void commit(EnginePhase phase, int levelId, int boardSize, int iteration) {
+        PhaseEvent event = events[phase.ordinal()];
+
+        if (event.shouldCommit()) {
+            event.levelId = levelId;
+            event.boardSize = boardSize;
+            event.iteration = iteration;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package unicrush.model.jfr;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the flight recorder events of the engine phases.
+ *
+ * <p>
+ * The stack traces are not recorded, since the phases are always called from the same few places
+ * of the {@code LevelManager}.</p>
+ *
+ * @author Szalontai Jordán
+ */
+@Category({"UniCrush", "Engine"})
+@StackTrace(false)
+abstract class PhaseEvent extends jdk.jfr.Event {
+
+    //CHECKSTYLE:OFF
+    @Label("Level ID")
+    int levelId;
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Iteration")
+    int iteration;
+    //CHECKSTYLE:ON
+}
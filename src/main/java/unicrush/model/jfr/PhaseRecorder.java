@@ -0,0 +1,101 @@
+package unicrush.model.jfr;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class for emitting the Java Flight Recorder events of the engine phases.
+ *
+ * <p>
+ * A phase is wrapped by a {@code begin} and a {@code commit} call, and the event is only written,
+ * if a recording is running with the event enabled, for example</p>
+ * <pre>
+ *  recorder.begin(EnginePhase.MARK);
+ *  markAllCandies();
+ *  recorder.commit(EnginePhase.MARK, level.getID(), level.getBoardSize(), iterations);
+ * </pre>
+ *
+ * <p>
+ * The events can be recorded with the {@code -XX:StartFlightRecording} option of the JVM, and
+ * found under the <em>UniCrush / Engine</em> category of the recording.</p>
+ *
+ * <p>
+ * The instances returned by {@link #create()} reuse one event object per phase, so they are not
+ * thread-safe, every manager should have its own recorder. If the running JVM does not have the
+ * {@code jdk.jfr} API, the recorder does nothing.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public class PhaseRecorder {
+
+    //CHECKSTYLE:OFF
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhaseRecorder.class);
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    PhaseRecorder() {
+    }
+    //CHECKSTYLE:ON
+
+    /**
+     * Returns a new recorder, that emits flight recorder events if the JVM supports them.
+     *
+     * @return a new recorder
+     */
+    public static PhaseRecorder create() {
+        return AVAILABLE ? new FlightPhaseRecorder() : new PhaseRecorder();
+    }
+
+    /**
+     * Marks the beginning of a phase.
+     *
+     * @param phase the phase that begins
+     */
+    public void begin(EnginePhase phase) {
+    }
+
+    /**
+     * Marks the end of a phase, and writes its event if the event is enabled.
+     *
+     * @param phase the phase that ended
+     * @param levelId the ID of the level the phase ran on
+     * @param boardSize the size of the board
+     * @param iteration the index of the iteration of the processing, {@code 0} for the phases that
+     * are not part of a processing
+     */
+    public void commit(EnginePhase phase, int levelId, int boardSize, int iteration) {
+    }
+
+    //CHECKSTYLE:OFF
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, PhaseRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            LOGGER.debug("Flight recorder events are not available: {}", ex.getMessage());
+            return false;
+        }
+    }
+    //CHECKSTYLE:ON
+}
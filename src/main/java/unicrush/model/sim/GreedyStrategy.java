@@ -0,0 +1,50 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.List;
+import java.util.SplittableRandom;
+import unicrush.model.LevelManager;
+import unicrush.model.Move;
+
+/**
+ * Class for a strategy that chooses the move clearing the most candies right after the swap.
+ *
+ * <p>
+ * Chain reactions are not considered, see {@link LevelManager#findBestMoves(int)}.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class GreedyStrategy implements MoveStrategy {
+
+    @Override
+    public Move chooseMove(LevelManager manager, SplittableRandom random) {
+        List<Move> moves = manager.findBestMoves(1);
+
+        return moves.isEmpty() ? null : moves.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return "greedy";
+    }
+}
@@ -0,0 +1,128 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.List;
+import java.util.SplittableRandom;
+import unicrush.model.CandyState;
+import unicrush.model.Level;
+import unicrush.model.LevelDefinition;
+import unicrush.model.LevelManager;
+import unicrush.model.Move;
+import unicrush.model.RefillSource;
+
+/**
+ * Class for a strategy that plays every legal move on a copy of the board, and chooses the one
+ * with the best outcome.
+ *
+ * <p>
+ * The outcome of a move is the score of the whole processing, including the chain reactions,
+ * plus the score of the best move on the board after it. Since the new candies are not known in
+ * advance, the copy is filled up from the generator of the game.</p>
+ *
+ * <p>
+ * The copy and its manager are created once per thread and reused for every move, so the strategy
+ * can still be used by many threads of the {@link Simulator} at the same time.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class LookaheadStrategy implements MoveStrategy {
+
+    //CHECKSTYLE:OFF
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+    //CHECKSTYLE:ON
+
+    @Override
+    public Move chooseMove(LevelManager manager, SplittableRandom random) {
+        Level level = manager.getLevel();
+        List<Move> moves = manager.findAllMoves();
+
+        if (moves.isEmpty()) {
+            return null;
+        }
+
+        Scratch copy = scratchFor(level.getDefinition());
+        copy.random = random;
+
+        Move best = null;
+        int bestOutcome = -1;
+
+        for (Move move : moves) {
+            copy.level.setCells(level.getCells());
+            copy.manager.swap(move.toCoordinates());
+
+            int before = copy.manager.getSum();
+            copy.manager.process();
+            int outcome = copy.manager.getSum() - before;
+
+            List<Move> next = copy.manager.findBestMoves(1);
+            if (!next.isEmpty()) {
+                outcome += next.get(0).getScore();
+            }
+
+            if (outcome > bestOutcome) {
+                best = move;
+                bestOutcome = outcome;
+            }
+        }
+        copy.random = null;
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "lookahead";
+    }
+
+    //CHECKSTYLE:OFF
+    private Scratch scratchFor(LevelDefinition definition) {
+        Scratch copy = scratch.get();
+
+        if (copy == null || copy.level.getDefinition() != definition) {
+            copy = new Scratch(definition);
+            scratch.set(copy);
+        }
+        return copy;
+    }
+
+    private static final class Scratch implements RefillSource {
+
+        private static final int BOUND = CandyState.values().length;
+
+        private final Level level;
+        private final LevelManager manager;
+        private SplittableRandom random;
+
+        Scratch(LevelDefinition definition) {
+            this.level = definition.newLevel();
+            this.manager = new LevelManager(level, this);
+            // the moves tried on the copy are not cascades of the game
+            this.manager.setRecordingMetrics(false);
+        }
+
+        @Override
+        public byte next() {
+            return (byte) random.nextInt(1, BOUND);
+        }
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,52 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.SplittableRandom;
+import unicrush.model.LevelManager;
+import unicrush.model.Move;
+
+/**
+ * Interface for a bot that chooses the next move of a simulated game.
+ *
+ * <p>
+ * A strategy may be used by many threads of the {@link Simulator} at the same time, so it should
+ * not share any mutable state between the threads, every random decision should be made by the
+ * given generator.</p>
+ *
+ * @author Szalontai Jordán
+ */
+@FunctionalInterface
+public interface MoveStrategy {
+
+    /**
+     * Chooses the next move on the level of the given manager.
+     *
+     * <p>
+     * The strategy must not leave any changes on the level.</p>
+     *
+     * @param manager the manager of the level the game is played on
+     * @param random the generator of the game for the random decisions
+     * @return the chosen move, or {@code null} if there are no moves available
+     */
+    public Move chooseMove(LevelManager manager, SplittableRandom random);
+}
@@ -0,0 +1,53 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.List;
+import java.util.SplittableRandom;
+import unicrush.model.LevelManager;
+import unicrush.model.Move;
+
+/**
+ * Class for a strategy that chooses one of the legal moves at random.
+ *
+ * <p>
+ * It gives a lower bound of the scores a player would get on a level.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public final class RandomStrategy implements MoveStrategy {
+
+    @Override
+    public Move chooseMove(LevelManager manager, SplittableRandom random) {
+        List<Move> moves = manager.findAllMoves();
+
+        if (moves.isEmpty()) {
+            return null;
+        }
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    @Override
+    public String toString() {
+        return "random";
+    }
+}
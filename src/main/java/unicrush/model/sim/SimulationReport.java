@@ -0,0 +1,152 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.Arrays;
+
+/**
+ * Class representing the results of the simulated games on a level.
+ *
+ * <pre>
+ * Example of the {@code String} representation:
+ *
+ *     level 3, greedy: 1000 games, win rate 0.62, score min 1260 / median 5040 / p90 7380 / max 11340,
+ *     21034 moves/s
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class SimulationReport {
+
+    //CHECKSTYLE:OFF
+    private final int levelId;
+    private final String strategy;
+    private final int wins;
+    private final int[] scores;
+    private final long moves;
+    private final long elapsedNanos;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a report.
+     *
+     * @param levelId the ID of the simulated level
+     * @param strategy the name of the strategy the games were played with
+     * @param wins the number of games in which the score to complete was reached
+     * @param scores the final scores of the games
+     * @param moves the number of moves made in all the games
+     * @param elapsedNanos the time the simulation took in nanoseconds
+     */
+    public SimulationReport(int levelId, String strategy, int wins, int[] scores, long moves,
+            long elapsedNanos) {
+        this.levelId = levelId;
+        this.strategy = strategy;
+        this.wins = wins;
+        this.scores = scores.clone();
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+        Arrays.sort(this.scores);
+    }
+
+    /**
+     * Returns the ratio of the won games.
+     *
+     * @return the ratio of the won games, between 0 and 1
+     */
+    public double getWinRate() {
+        return scores.length == 0 ? 0 : (double) wins / scores.length;
+    }
+
+    /**
+     * Returns the score that the given ratio of the games did not exceed.
+     *
+     * @param ratio the ratio between 0 and 1, e.g. 0.5 for the median
+     * @return the score at the given ratio of the sorted scores
+     * @throws IllegalArgumentException if the ratio is not between 0 and 1, or there were no games
+     */
+    public int getScorePercentile(double ratio) throws IllegalArgumentException {
+        if (ratio < 0 || ratio > 1 || scores.length == 0) {
+            throw new IllegalArgumentException("Invalid ratio, or no games: " + ratio);
+        }
+        return scores[Math.max(0, (int) Math.ceil(ratio * scores.length) - 1)];
+    }
+
+    /**
+     * Returns the average score of the games.
+     *
+     * @return the average score
+     */
+    public double getMeanScore() {
+        return Arrays.stream(scores).average().orElse(0);
+    }
+
+    /**
+     * Returns the number of moves made per second, by all the threads together.
+     *
+     * @return the number of moves per second
+     */
+    public double getMovesPerSecond() {
+        return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (scores.length == 0) {
+            return "level " + levelId + ", " + strategy + ": no games";
+        }
+        return String.format("level %d, %s: %d games, win rate %.2f, "
+                + "score min %d / median %d / p90 %d / max %d, %.0f moves/s",
+                levelId, strategy, scores.length, getWinRate(),
+                scores[0], getScorePercentile(0.5), getScorePercentile(0.9), scores[scores.length - 1],
+                getMovesPerSecond());
+    }
+
+    //CHECKSTYLE:OFF
+    public int getLevelId() {
+        return levelId;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public int getGames() {
+        return scores.length;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    //CHECKSTYLE:ON
+}
@@ -0,0 +1,210 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import unicrush.model.CandyCrushGame;
+import unicrush.model.Level;
+import unicrush.model.LevelDefinition;
+import unicrush.model.Move;
+import unicrush.model.RandomRefillSource;
+import unicrush.model.Validator;
+
+/**
+ * Class for playing a level many times without any user interface, to see how hard it is.
+ *
+ * <p>
+ * Every game is played on a new board that shares the {@code LevelDefinition} of the level,
+ * through a {@link CandyCrushGame}, so the same rules apply as in the real game. A move that makes
+ * a pop costs a step, just like in the game scene, and if there are no moves available the board
+ * is shuffled. The games run in parallel on a {@code ForkJoinPool}, and each game has its own
+ * seeds, derived from the seed of the simulation, so the results can be reproduced.</p>
+ *
+ * <pre>
+ *
+ *  Simulator simulator = new Simulator();
+ *  SimulationReport report = simulator.simulate(level, new GreedyStrategy(), 1000, 42L);
+ *
+ *  System.out.println(report);
+ * </pre>
+ *
+ * @author Szalontai Jordán
+ */
+public final class Simulator {
+
+    //CHECKSTYLE:OFF
+    private static final int GAMES_PER_TASK = 4;
+    private static final int MAX_SHUFFLES = 10;
+
+    private final ForkJoinPool pool;
+    //CHECKSTYLE:ON
+
+    /**
+     * Constructs a simulator that runs the games on the common pool.
+     */
+    public Simulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a simulator that runs the games on the given pool.
+     *
+     * @param pool the pool the games run on
+     */
+    public Simulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the given number of games on the level with the strategy.
+     *
+     * @param level the level we simulate, it is not changed by the simulation
+     * @param strategy the strategy that chooses the moves
+     * @param games the number of games to play
+     * @param seed the seed of the simulation
+     * @return the report of the games
+     * @throws IllegalArgumentException if the number of games is negative
+     */
+    public SimulationReport simulate(Level level, MoveStrategy strategy, int games, long seed)
+            throws IllegalArgumentException {
+        if (games < 0) {
+            throw new IllegalArgumentException("Invalid number of games: " + games);
+        }
+
+        long[] seeds = new long[games];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < games; i++) {
+            seeds[i] = random.nextLong();
+        }
+
+        int[] scores = new int[games];
+        int[] moves = new int[games];
+
+        long start = System.nanoTime();
+        pool.invoke(new GamesTask(level.getDefinition(), strategy, seeds, scores, moves, 0, games));
+        long elapsed = System.nanoTime() - start;
+
+        int wins = 0;
+        long allMoves = 0;
+        for (int i = 0; i < games; i++) {
+            if (scores[i] >= level.getScoreToComplete()) {
+                wins++;
+            }
+            allMoves += moves[i];
+        }
+        return new SimulationReport(level.getID(), strategy.toString(), wins, scores, allMoves,
+                elapsed);
+    }
+
+    /**
+     * Plays the given number of games on each level with the strategy.
+     *
+     * @param levels the levels we simulate
+     * @param strategy the strategy that chooses the moves
+     * @param games the number of games to play on each level
+     * @param seed the seed of the simulation
+     * @return the reports of the levels in the same order
+     */
+    public List<SimulationReport> simulate(List<Level> levels, MoveStrategy strategy, int games,
+            long seed) {
+        List<SimulationReport> reports = new ArrayList<>(levels.size());
+
+        for (Level level : levels) {
+            reports.add(simulate(level, strategy, games, seed));
+        }
+        return reports;
+    }
+
+    //CHECKSTYLE:OFF
+    private static final class GamesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LevelDefinition definition;
+        private final MoveStrategy strategy;
+        private final long[] seeds;
+        private final int[] scores;
+        private final int[] moves;
+        private final int from;
+        private final int to;
+
+        GamesTask(LevelDefinition definition, MoveStrategy strategy, long[] seeds, int[] scores,
+                int[] moves, int from, int to) {
+            this.definition = definition;
+            this.strategy = strategy;
+            this.seeds = seeds;
+            this.scores = scores;
+            this.moves = moves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    play(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GamesTask(definition, strategy, seeds, scores, moves, from, middle),
+                    new GamesTask(definition, strategy, seeds, scores, moves, middle, to));
+        }
+
+        private void play(int index) {
+            SplittableRandom random = new SplittableRandom(seeds[index]);
+            Level board = definition.newLevel(random.nextLong());
+
+            CandyCrushGame game = new CandyCrushGame();
+            game.getLevels().add(board);
+            game.startLevel(board, new RandomRefillSource(random.nextLong()));
+
+            Validator validator = Validator.getInstance();
+            int steps = board.getAvailableSteps();
+            int shuffles = 0;
+
+            while (!validator.isEndGameSituation(game, steps) && shuffles < MAX_SHUFFLES) {
+                Move move = strategy.chooseMove(game.getManager(), random);
+
+                if (move == null) {
+                    game.shuffle();
+                    shuffles++;
+                    continue;
+                }
+
+                int before = game.getPlayerScore();
+                game.play(move.toCoordinates());
+                if (game.getPlayerScore() != before) {
+                    steps--;
+                }
+                moves[index]++;
+            }
+            scores[index] = game.getPlayerScore();
+        }
+    }
+    //CHECKSTYLE:ON
+}
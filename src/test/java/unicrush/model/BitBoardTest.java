@@ -0,0 +1,182 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.BitBoard}.
+ *
+ * @author Szalontai Jordán
+ */
+public class BitBoardTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BitBoardTest.class);
+    private static final int BOARD_SIZE = 5;
+
+    private static Level.Builder builder;
+
+    public BitBoardTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class BitBoard");
+
+        String template = "0,0;4,0;0,4;4,4;2,2";
+        builder = new Level.Builder(0, BOARD_SIZE)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(Level.createCoordinates(template));
+    }
+
+    /**
+     * Test of load and store methods, of class BitBoard.
+     */
+    @Test
+    public void testLoadAndStore() {
+        LOGGER.info("- Testing methods load and store");
+
+        Level level = builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build();
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        board.load(level);
+
+        Assert.assertEquals(5, Long.bitCount(board.getWalls()));
+        Assert.assertEquals(CandyState.RED, board.get(0, 1));
+        Assert.assertNull(board.get(2, 2));
+
+        Level other = builder.fillBoard(LevelManagerTest.ALL_EMPTY_LEVEL).build();
+        board.store(other);
+        Assert.assertEquals(LevelManagerTest.NO_MATCH_LEVEL, other.getBoardState());
+    }
+
+    /**
+     * Test of findMatches method, of class BitBoard.
+     */
+    @Test
+    public void testFindMatches() {
+        LOGGER.info("- Testing method findMatches");
+
+        BitBoard board = new BitBoard(BOARD_SIZE);
+
+        board.load(builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build());
+        Assert.assertEquals(0L, board.findMatches());
+
+        board.load(builder.fillBoard(LevelManagerTest.CHAIN_REACTION_LEVEL).build());
+        Assert.assertEquals(BitBoard.bit(3, 0) | BitBoard.bit(3, 1) | BitBoard.bit(3, 2),
+                board.findMatches());
+
+        board.load(builder.fillBoard(LevelManagerTest.ALL_EMPTY_LEVEL).build());
+        Assert.assertEquals(20, Long.bitCount(board.findMatches()));
+
+        board.load(new Level.Builder(1, BitBoard.MAX_SIZE)
+                .fillBoard("RRGBBGRR;GBRGBRGB;BGBRGBRG;RBGRBGRB;GRBGRBGR;BRGBRGBR;RGBRGBRG;GBRGBRGB")
+                .build());
+        Assert.assertEquals(0L, board.findMatches());
+    }
+
+    /**
+     * Test of applyGravity method, of class BitBoard.
+     */
+    @Test
+    public void testApplyGravity() {
+        LOGGER.info("- Testing method applyGravity");
+
+        Level level = builder.fillBoard(LevelManagerTest.CHAIN_REACTION_LEVEL).build();
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        board.load(level);
+
+        board.pop(board.findMatches());
+        Assert.assertEquals(3, board.applyGravity(() -> (byte) CandyState.YELLOW.ordinal()));
+        Assert.assertEquals(0L, board.getMask(CandyState.EMPTY));
+
+        board.store(level);
+        Assert.assertEquals("xYYBx;YRGRG;RBxPO;GBBRB;xBGPx", level.getBoardState());
+    }
+
+    /**
+     * Test of store method on a transposed level, of class BitBoard.
+     */
+    @Test
+    public void testStoreTransposed() {
+        LOGGER.info("- Testing method store on a transposed level");
+
+        Level level = builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build();
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        level.transpose();
+        board.load(level);
+
+        Level other = builder.fillBoard(LevelManagerTest.ALL_EMPTY_LEVEL).build();
+        int modCount = other.getModCount();
+        other.transpose();
+        board.store(other);
+
+        Assert.assertEquals(level.getBoardState(), other.getBoardState());
+        Assert.assertEquals(level.getZobristHash(), other.getZobristHash());
+        Assert.assertEquals(modCount, other.getModCount());
+    }
+
+    /**
+     * Test of swap method, of class BitBoard.
+     */
+    @Test
+    public void testSwap() {
+        LOGGER.info("- Testing method swap");
+
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        board.load(builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build());
+        CandyState first = board.get(0, 1);
+        CandyState second = board.get(1, 1);
+
+        board.swap(0, 1, 1, 1);
+        Assert.assertEquals(second, board.get(0, 1));
+        Assert.assertEquals(first, board.get(1, 1));
+    }
+
+    /**
+     * Test of swap method with a wall, of class BitBoard.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSwapWall() {
+        LOGGER.info("- Testing method swap with a wall");
+
+        BitBoard board = new BitBoard(BOARD_SIZE);
+        board.load(builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build());
+
+        board.swap(0, 0, 0, 1);
+    }
+
+    /**
+     * Test of the constructor, of class BitBoard.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLargeBoard() {
+        LOGGER.info("- Testing constructor with a too large board");
+
+        new BitBoard(BitBoard.MAX_SIZE + 1);
+    }
+}
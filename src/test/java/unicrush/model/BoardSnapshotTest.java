@@ -0,0 +1,168 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.BoardSnapshot}.
+ *
+ * @author Szalontai Jordán
+ */
+public class BoardSnapshotTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoardSnapshotTest.class);
+    private static final int BOARD_SIZE = 5;
+
+    private static Level.Builder builder;
+
+    public BoardSnapshotTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class BoardSnapshot");
+
+        String template = "0,0;4,0;0,4;4,4;2,2";
+        builder = new Level.Builder(0, BOARD_SIZE)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(Level.createCoordinates(template));
+    }
+
+    /**
+     * Test of of method, of class BoardSnapshot.
+     */
+    @Test
+    public void testOf() {
+        LOGGER.info("- Testing method of");
+
+        Level level = builder.fillBoard(LevelManagerTest.NO_MATCH_LEVEL).build();
+        BoardSnapshot snapshot = BoardSnapshot.of(level);
+
+        Assert.assertEquals(BOARD_SIZE, snapshot.getBoardSize());
+        Assert.assertEquals(Level.WALL, snapshot.get(0, 0));
+        Assert.assertEquals(level.getCell(0, 1), snapshot.get(0, 1));
+        Assert.assertEquals(level.getBoardState(), snapshot.toString());
+
+        level.transpose();
+        Assert.assertEquals(level.getBoardState(), level.getSnapshot().toString());
+        Assert.assertNotEquals(snapshot, level.getSnapshot());
+    }
+
+    /**
+     * Test of parse method, of class BoardSnapshot.
+     */
+    @Test
+    public void testParse() {
+        LOGGER.info("- Testing method parse");
+
+        Level level = builder.fillBoard(LevelManagerTest.CHAIN_REACTION_LEVEL).build();
+        BoardSnapshot snapshot = BoardSnapshot.parse(LevelManagerTest.CHAIN_REACTION_LEVEL);
+
+        Assert.assertEquals(level.getSnapshot(), snapshot);
+        Assert.assertEquals(level.getSnapshot().hashCode(), snapshot.hashCode());
+        Assert.assertEquals(LevelManagerTest.CHAIN_REACTION_LEVEL, snapshot.toString());
+        Assert.assertNotEquals(BoardSnapshot.parse(LevelManagerTest.NO_MATCH_LEVEL), snapshot);
+    }
+
+    /**
+     * Test of parse method with a malformed template, of class BoardSnapshot.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMalformed() {
+        LOGGER.info("- Testing method parse with a malformed template");
+
+        BoardSnapshot.parse("xRx;RR;xRx");
+    }
+
+    /**
+     * Test of toByteArray and fromByteArray methods, of class BoardSnapshot.
+     */
+    @Test
+    public void testByteArray() {
+        LOGGER.info("- Testing methods toByteArray and fromByteArray");
+
+        BoardSnapshot snapshot = BoardSnapshot.parse(LevelManagerTest.NO_MATCH_LEVEL);
+        byte[] bytes = snapshot.toByteArray();
+
+        Assert.assertEquals(Integer.BYTES + 2 * Long.BYTES, bytes.length);
+        Assert.assertEquals(snapshot, BoardSnapshot.fromByteArray(bytes));
+    }
+
+    /**
+     * Test of fromByteArray method with malformed input, of class BoardSnapshot.
+     */
+    @Test
+    public void testFromByteArrayMalformed() {
+        LOGGER.info("- Testing method fromByteArray with malformed input");
+
+        byte[][] malformed = {
+            new byte[0],
+            new byte[3],
+            ByteBuffer.allocate(Integer.BYTES).putInt(-1).array(),
+            ByteBuffer.allocate(Integer.BYTES).putInt(5).array(),
+            // the length of this size would overflow an int
+            ByteBuffer.allocate(Integer.BYTES).putInt(Integer.MAX_VALUE).array()
+        };
+
+        for (byte[] bytes : malformed) {
+            try {
+                BoardSnapshot.fromByteArray(bytes);
+                Assert.fail("Expected an IllegalArgumentException for " + bytes.length + " bytes");
+            } catch (IllegalArgumentException ex) {
+                LOGGER.info("  Rejected: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Test of fromByteArray method with corrupt cells, of class BoardSnapshot.
+     */
+    @Test
+    public void testFromByteArrayCorrupt() {
+        LOGGER.info("- Testing method fromByteArray with corrupt cells");
+
+        byte[] code = BoardSnapshot.parse(LevelManagerTest.NO_MATCH_LEVEL).toByteArray();
+        byte[] padding = code.clone();
+        // the first cell is the lowest nibble of the first word, the last padding nibble is the
+        // highest one of the last word
+        int first = Integer.BYTES + Long.BYTES - 1;
+        code[first] = (byte) (code[first] & 0xF0 | 0x0E);
+        padding[Integer.BYTES + Long.BYTES] = (byte) 0x10;
+
+        for (byte[] bytes : new byte[][]{code, padding}) {
+            try {
+                BoardSnapshot.fromByteArray(bytes);
+                Assert.fail("Expected an IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                LOGGER.info("  Rejected: {}", ex.getMessage());
+            }
+        }
+    }
+}
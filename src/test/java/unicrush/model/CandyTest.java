@@ -24,6 +24,7 @@ package unicrush.model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -68,12 +69,25 @@ public class CandyTest {
         LOGGER.info("- Testing method isEmpty");
 
         colorStates.stream()
-                .forEach(state -> Assert.assertFalse(new Candy(state).isEmpty()));
+                .forEach(state -> Assert.assertFalse(Candy.of(state).isEmpty()));
 
-        Candy empty = new Candy(CandyState.EMPTY);
+        Candy empty = Candy.of(CandyState.EMPTY);
         Assert.assertTrue(empty.isEmpty());
     }
 
+    /**
+     * Test of of method, of class Candy.
+     */
+    @Test
+    public void testOf() {
+        LOGGER.info("- Testing method of");
+
+        for (CandyState state : CandyState.values()) {
+            Assert.assertSame(Candy.of(state), Candy.of(state));
+            Assert.assertEquals(state, Candy.of(state).getState());
+        }
+    }
+
     /**
      * Test of getRandomColorState method, of class Candy.
      */
@@ -85,6 +99,16 @@ public class CandyTest {
 
             Assert.assertTrue(colorStates.contains(state));
         }
+
+        SplittableRandom first = new SplittableRandom(42L);
+        SplittableRandom second = new SplittableRandom(42L);
+
+        for (int i = 0; i < 10; i++) {
+            CandyState state = Candy.getRandomColorState(first);
+
+            Assert.assertTrue(colorStates.contains(state));
+            Assert.assertEquals(state, Candy.getRandomColorState(second));
+        }
     }
 
     /**
@@ -119,8 +143,8 @@ public class CandyTest {
         Candy c2;
 
         // test 1
-        c1 = new Candy(CandyState.BLUE);
-        c2 = new Candy(CandyState.EMPTY);
+        c1 = Candy.of(CandyState.BLUE);
+        c2 = Candy.of(CandyState.EMPTY);
 
         expResult = 1;
         result = Candy.compare(c1, c2);
@@ -134,7 +158,7 @@ public class CandyTest {
         Assert.assertEquals(expResult, result);
 
         // test 3
-        c2.setState(CandyState.BLUE);
+        c2 = Candy.of(CandyState.BLUE);
 
         expResult = 0;
         result = Candy.compare(c1, c2);
@@ -142,7 +166,7 @@ public class CandyTest {
         Assert.assertEquals(expResult, result);
 
         // test 4
-        c1.setState(CandyState.RED);
+        c1 = Candy.of(CandyState.RED);
 
         expResult = 0;
         result = Candy.compare(c1, c2);
@@ -150,8 +174,8 @@ public class CandyTest {
         Assert.assertEquals(expResult, result);
 
         // test 5
-        c1.setState(CandyState.EMPTY);
-        c2.setState(CandyState.EMPTY);
+        c1 = Candy.of(CandyState.EMPTY);
+        c2 = Candy.of(CandyState.EMPTY);
 
         expResult = 0;
         result = Candy.compare(c1, c2);
@@ -0,0 +1,176 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * Test class for {@code unicrush.model.CascadeMetrics}.
+ *
+ * @author Szalontai Jordán
+ */
+public class CascadeMetricsTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CascadeMetricsTest.class);
+    private static final RefillSource RED_REFILL = () -> (byte) CandyState.RED.ordinal();
+
+    private CascadeMetrics metrics;
+
+    public CascadeMetricsTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class CascadeMetrics");
+    }
+
+    @Before
+    public void setUp() {
+        metrics = CascadeMetrics.getInstance();
+        metrics.setEnabled(true);
+        metrics.reset();
+    }
+
+    /**
+     * Test of the registration of the metrics on the platform MBean server.
+     */
+    @Test
+    public void testRegistration() throws Exception {
+        LOGGER.info("- Testing the registration of the metrics");
+
+        ObjectName name = new ObjectName(CascadeMetrics.OBJECT_NAME);
+
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        Assert.assertEquals(true, ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(name, "Enabled"));
+    }
+
+    /**
+     * Test of recording the cascades of the LevelManager, of class CascadeMetrics.
+     */
+    @Test
+    public void testRecordCascade() {
+        LOGGER.info("- Testing the recording of the cascades");
+
+        LevelManager manager = new LevelManager(createLevel(LevelManagerTest.NO_MATCH_LEVEL),
+                RED_REFILL);
+        manager.process();
+        Assert.assertEquals(0, metrics.getCascadeCount());
+        Assert.assertEquals(1, metrics.getDepthHistogram()[0]);
+
+        manager.setLevel(createLevel(LevelManagerTest.CHAIN_REACTION_LEVEL));
+        int iterations = manager.process();
+        long[] histogram = metrics.getDepthHistogram();
+        Map<String, Long> popped = metrics.getPoppedPerColor();
+
+        Assert.assertEquals(1, metrics.getCascadeCount());
+        Assert.assertEquals(CandyCrushGame.MAX_ITERATION + 1, histogram.length);
+        Assert.assertEquals(1, histogram[iterations]);
+        // the red candies that fill up the board keep matching until the limit is reached
+        Assert.assertEquals(CandyCrushGame.MAX_ITERATION, iterations);
+        Assert.assertEquals(1, metrics.getMaxIterationHits());
+        Assert.assertTrue(popped.get(CandyState.ORANGE.name()) >= 3);
+        Assert.assertTrue(popped.get(CandyState.RED.name()) >= 3);
+        Assert.assertEquals(Long.valueOf(0), popped.get(CandyState.YELLOW.name()));
+        Assert.assertTrue(metrics.getMarkNanos() > 0);
+        Assert.assertTrue(metrics.getGravityNanos() > 0);
+        Assert.assertTrue(metrics.getCascadesPerSecond() > 0);
+    }
+
+    /**
+     * Test of the setEnabled method, of class CascadeMetrics.
+     */
+    @Test
+    public void testSetEnabled() {
+        LOGGER.info("- Testing method setEnabled");
+
+        metrics.setEnabled(false);
+        new LevelManager(createLevel(LevelManagerTest.CHAIN_REACTION_LEVEL), RED_REFILL).process();
+        metrics.setEnabled(true);
+
+        Assert.assertEquals(0, metrics.getCascadeCount());
+        Assert.assertEquals(0, metrics.getMarkNanos());
+        Assert.assertEquals(0, metrics.getDepthHistogram()[0]);
+    }
+
+    /**
+     * Test of the getCascadesPerSecond method, of class CascadeMetrics.
+     */
+    @Test
+    public void testGetCascadesPerSecond() {
+        LOGGER.info("- Testing method getCascadesPerSecond");
+
+        long second = 1_000_000_000L;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 30; i++) {
+            metrics.recordCascade(1, start + second);
+        }
+        // the window starts at the reset, so its length is about two seconds here
+        Assert.assertEquals(15, metrics.getCascadesPerSecond(start + 2 * second), 1);
+
+        // the cascades drop out of the rate after the window
+        long later = start + (CascadeMetrics.RATE_WINDOW_SECONDS + 2) * second;
+        Assert.assertEquals(0, metrics.getCascadesPerSecond(later), 0);
+
+        for (int i = 0; i < 50; i++) {
+            metrics.recordCascade(1, later);
+        }
+        Assert.assertEquals(5, metrics.getCascadesPerSecond(later + second), 1);
+        Assert.assertEquals(80, metrics.getCascadeCount());
+    }
+
+    /**
+     * Test of the setRecordingMetrics method, of class LevelManager.
+     */
+    @Test
+    public void testSetRecordingMetrics() {
+        LOGGER.info("- Testing method setRecordingMetrics of LevelManager");
+
+        LevelManager manager = new LevelManager(createLevel(LevelManagerTest.CHAIN_REACTION_LEVEL),
+                RED_REFILL);
+        manager.setRecordingMetrics(false);
+        manager.process();
+
+        Assert.assertFalse(manager.isRecordingMetrics());
+        Assert.assertEquals(0, metrics.getCascadeCount());
+        Assert.assertEquals(0, metrics.getMarkNanos());
+        Assert.assertTrue(metrics.isEnabled());
+    }
+
+    private static Level createLevel(String template) {
+        return new Level.Builder(0, 5)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(Level.createCoordinates(template))
+                .fillBoard(template)
+                .build();
+    }
+}
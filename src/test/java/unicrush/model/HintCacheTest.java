@@ -0,0 +1,84 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * Test class for {@code unicrush.model.HintCache}.
+ *
+ * @author Szalontai Jordán
+ */
+public class HintCacheTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HintCacheTest.class);
+
+    public HintCacheTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class HintCache");
+    }
+
+    /**
+     * Test of get and put methods, of class HintCache.
+     */
+    @Test
+    public void testGetAndPut() {
+        LOGGER.info("- Testing methods get and put");
+
+        HintCache cache = new HintCache(2);
+        int[] area = {1, 0, 1, 1, 1, 2, 1, 3};
+
+        Assert.assertNull(cache.get(1L));
+        cache.put(1L, area);
+        cache.put(2L, new int[0]);
+        Assert.assertSame(area, cache.get(1L));
+        Assert.assertEquals(0, cache.get(2L).length);
+
+        // 1 was used more recently than 2, so 2 is dropped
+        cache.get(1L);
+        cache.put(3L, area);
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertNull(cache.get(2L));
+        Assert.assertNotNull(cache.get(1L));
+        Assert.assertNotNull(cache.get(3L));
+
+        Assert.assertEquals(5, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    /**
+     * Test of the constructor with an invalid capacity, of class HintCache.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        LOGGER.info("- Testing the constructor with an invalid capacity");
+
+        new HintCache(0);
+    }
+}
@@ -22,7 +22,9 @@ package unicrush.model;
  * #L%
  */
 
+import java.lang.management.ManagementFactory;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -160,6 +162,76 @@ public class LevelManagerTest {
         Assert.assertTrue(manager.getIterations() >= 2);
     }
 
+    /**
+     * Test of processWithDeltas method, of class LevelManager.
+     */
+    @Test
+    public void testProcessWithDeltas() {
+        LOGGER.info("- Testing method processWithDeltas");
+
+        manager.setLevel(builder.fillBoard(NO_MATCH_LEVEL).build());
+        Assert.assertTrue(manager.processWithDeltas().isEmpty());
+
+        Random random = new Random(42);
+        Level level = builder.fillBoard(CHAIN_REACTION_LEVEL).build();
+        byte[] cells = level.getCells().clone();
+
+        manager.setLevel(level);
+        manager.setRefillSource(() -> (byte) (1 + random.nextInt(6)));
+        List<CascadeStep> steps = manager.processWithDeltas();
+
+        Assert.assertEquals(manager.getIterations(), steps.size());
+        Assert.assertEquals(3, steps.get(0).getPoppedCount());
+        Assert.assertEquals(manager.getSum(), steps.stream().mapToInt(CascadeStep::getScore).sum());
+
+        random.setSeed(42);
+        LevelManager other = new LevelManager(builder.fillBoard(CHAIN_REACTION_LEVEL).build());
+        other.setRefillSource(() -> (byte) (1 + random.nextInt(6)));
+        List<String> boardStates = other.processWithState();
+
+        for (int k = 0; k < steps.size(); k++) {
+            steps.get(k).applyTo(cells);
+            Assert.assertArrayEquals(builder.fillBoard(boardStates.get(2 * k + 1)).build().getCells(),
+                    cells);
+        }
+        Assert.assertArrayEquals(level.getCells(), cells);
+    }
+
+    /**
+     * Test of keeping the Zobrist hash of the level up to date, of class LevelManager.
+     */
+    @Test
+    public void testZobristHash() {
+        LOGGER.info("- Testing the Zobrist hash of the processed level");
+
+        Random random = new Random(42);
+        Level level = new Level.Builder(0, 20).fillBoard(42L).build();
+        LevelManager other = new LevelManager(level, new RandomRefillSource(42L));
+
+        for (int i = 0; i < 50; i++) {
+            List<Move> moves = other.findAllMoves();
+            if (!moves.isEmpty()) {
+                other.swap(moves.get(random.nextInt(moves.size())).toCoordinates());
+                Assert.assertEquals(hashOf(level), level.getZobristHash());
+            }
+            if (other.popAllMarked()) {
+                Assert.assertEquals(hashOf(level), level.getZobristHash());
+                other.applyGravity();
+            }
+            Assert.assertEquals(hashOf(level), level.getZobristHash());
+        }
+
+        other.reset();
+        Assert.assertEquals(hashOf(level), level.getZobristHash());
+    }
+
+    private static long hashOf(Level level) {
+        return new Level.Builder(level.getID(), level.getBoardSize())
+                .fillBoard(level.getBoardState())
+                .build()
+                .getZobristHash();
+    }
+
     /**
      * Test of reset method, of class LevelManager.
      */
@@ -177,13 +249,38 @@ public class LevelManagerTest {
             int randI = (int) (Math.random() * BOARD_SIZE);
             int randJ = (int) (Math.random() * BOARD_SIZE);
 
-            manager.getLevel().set(randI, randJ, new Candy(Candy.getRandomColorState()));
+            manager.getLevel().set(randI, randJ, Candy.of(Candy.getRandomColorState()));
         }
+        manager.getLevel().transpose();
         manager.reset();
 
         before = manager.getLevel().getInitialState();
         after = manager.getLevel().getBoardState();
         Assert.assertEquals(before, after);
+        Assert.assertFalse(manager.getLevel().isTransposed());
+        Assert.assertEquals(manager.getLevel().getDefinition().newLevel().getZobristHash(),
+                manager.getLevel().getZobristHash());
+    }
+
+    /**
+     * Test of reset method on a level made from a seed, of class LevelManager.
+     */
+    @Test
+    public void testResetSeededLevel() {
+        LOGGER.info("- Testing method reset on a level made from a seed");
+
+        LevelDefinition definition = builder.fillBoard().build().getDefinition();
+        Level seeded = definition.newLevel(42L);
+        String start = seeded.getBoardState();
+
+        manager.setLevel(seeded);
+        manager.getLevel().setCell(0, 1, (byte) CandyState.EMPTY.ordinal());
+        manager.reset();
+
+        // the level is reset to its own board, not to the board of the definition
+        Assert.assertEquals(start, seeded.getBoardState());
+        Assert.assertEquals(start, seeded.getInitialState());
+        Assert.assertNotEquals(definition.getInitialState(), seeded.getBoardState());
     }
 
     /**
@@ -232,6 +329,128 @@ public class LevelManagerTest {
         Assert.assertEquals("0,0;0,1;1,0;1,1;2,0;2,1;", manager.getAvailableMoves());
     }
 
+    /**
+     * Test of findMoveArea method, of class LevelManager.
+     */
+    @Test
+    public void testFindMoveArea() {
+        LOGGER.info("- Testing method findMoveArea");
+
+        manager.setLevel(builder.fillBoard(NO_MATCH_LEVEL).build());
+        Assert.assertArrayEquals(new int[0], manager.findMoveArea());
+
+        manager.setLevel(builder.fillBoard(INLINE_ROW_MATCH_FIRST_LEVEL).build());
+        Assert.assertArrayEquals(new int[]{1, 0, 1, 1, 1, 2, 1, 3}, manager.findMoveArea());
+
+        manager.setLevel(builder.fillBoard(BOX_COL_MATCH_FIRST_LEVEL).build());
+        Assert.assertArrayEquals(new int[]{0, 0, 0, 1, 1, 0, 1, 1, 2, 0, 2, 1}, manager.findMoveArea());
+
+        // the candy would have to move into a wall
+        manager.setLevel(new Level.Builder(0, 4).fillBoard("RRxR;GBOP;BOPG;OPGB").build());
+        Assert.assertArrayEquals(new int[0], manager.findMoveArea());
+
+        manager.setLevel(new Level.Builder(0, 4).fillBoard("RRGR;GBOP;BOPG;OPGB").build());
+        Assert.assertArrayEquals(new int[]{0, 0, 0, 1, 0, 2, 0, 3}, manager.findMoveArea());
+    }
+
+    /**
+     * Test of findMoveArea method with a hint cache, of class LevelManager.
+     */
+    @Test
+    public void testFindMoveAreaCache() {
+        LOGGER.info("- Testing method findMoveArea with a hint cache");
+
+        HintCache cache = new HintCache(16);
+        LevelManager other = new LevelManager(builder.fillBoard(INLINE_ROW_MATCH_FIRST_LEVEL).build());
+        // the managers do not share a cache by default
+        Assert.assertNotSame(manager.getHintCache(), other.getHintCache());
+        other.setHintCache(cache);
+
+        int[] area = other.findMoveArea();
+        // a hint found before is returned from the cache without a copy
+        Assert.assertSame(area, other.findMoveArea());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getHits());
+
+        other.swap(Level.createCoordinates("1,2;1,3"));
+        other.findMoveArea();
+        Assert.assertEquals(2, cache.getMisses());
+
+        other.swap(Level.createCoordinates("1,2;1,3"));
+        Assert.assertArrayEquals(area, other.findMoveArea());
+        Assert.assertEquals(2, cache.getHits());
+    }
+
+    /**
+     * Test of lookForMoves method, of class LevelManager.
+     */
+    @Test
+    public void testLookForMoves() {
+        LOGGER.info("- Testing method lookForMoves");
+
+        manager.setLevel(builder.fillBoard(BOX_COL_MATCH_FIRST_LEVEL).build());
+        Assert.assertEquals("", manager.lookForMoves());
+
+        manager.getLevel().transpose();
+        Assert.assertEquals("0,0;0,1;1,0;1,1;2,0;2,1;", manager.lookForMoves());
+        manager.getLevel().transpose();
+    }
+
+    /**
+     * Test of findAllMoves method, of class LevelManager.
+     */
+    @Test
+    public void testFindAllMoves() {
+        LOGGER.info("- Testing method findAllMoves");
+
+        manager.setLevel(builder.fillBoard(NO_MATCH_LEVEL).build());
+        Assert.assertTrue(manager.findAllMoves().isEmpty());
+
+        manager.setLevel(builder.fillBoard(INLINE_ROW_MATCH_FIRST_LEVEL).build());
+        List<Move> moves = manager.findAllMoves();
+        Assert.assertEquals(2, moves.size());
+        Assert.assertEquals(new Move(1, 1, 1, 2, 3, 180), moves.get(0));
+        Assert.assertEquals(new Move(1, 2, 1, 3, 3, 180), moves.get(1));
+
+        for (Move move : moves) {
+            manager.setLevel(builder.fillBoard(INLINE_ROW_MATCH_FIRST_LEVEL).build());
+            manager.swap(move.toCoordinates());
+            manager.popAllMarked();
+            Assert.assertEquals(move.getScore(), manager.applyGravity());
+        }
+    }
+
+    /**
+     * Test of findBestMoves method, of class LevelManager.
+     */
+    @Test
+    public void testFindBestMoves() {
+        LOGGER.info("- Testing method findBestMoves");
+
+        manager.setLevel(new Level.Builder(0, 5)
+                .fillBoard("RRGRR;GBRPB;BOPGO;OPGBP;PGBOG")
+                .build());
+
+        List<Move> moves = manager.findBestMoves(2);
+        Assert.assertEquals(2, moves.size());
+        Assert.assertEquals(new Move(0, 2, 1, 2, 5, 300), moves.get(0));
+        Assert.assertEquals(new Move(0, 1, 0, 2, 3, 180), moves.get(1));
+
+        Assert.assertEquals(3, manager.findBestMoves(10).size());
+        Assert.assertTrue(manager.findBestMoves(0).isEmpty());
+    }
+
+    /**
+     * Test of findBestMoves method with a negative number of moves, of class LevelManager.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindBestMovesNegative() {
+        LOGGER.info("- Testing method findBestMoves with a negative number of moves");
+
+        manager.setLevel(builder.fillBoard(NO_MATCH_LEVEL).build());
+        manager.findBestMoves(-1);
+    }
+
     /**
      * Test of popAllMarked method, of class LevelManager.
      */
@@ -250,6 +469,41 @@ public class LevelManagerTest {
         Assert.assertFalse(isSuccessfulPop);
     }
 
+    /**
+     * Test of popAllMarked method after swaps and gravity, of class LevelManager.
+     */
+    @Test
+    public void testIncrementalPopAllMarked() {
+        LOGGER.info("- Testing method popAllMarked after swaps and gravity");
+
+        Random random = new Random(42);
+        manager.setRefillSource(() -> (byte) (1 + random.nextInt(4)));
+        manager.setLevel(new Level.Builder(0, 20).fillBoard().build());
+
+        for (int i = 0; i < 200; i++) {
+            int row = random.nextInt(19);
+            int col = random.nextInt(19);
+            manager.swap(random.nextBoolean()
+                    ? new Integer[][]{{row, col}, {row, col + 1}}
+                    : new Integer[][]{{row, col}, {row + 1, col}});
+
+            for (int k = 0; k < CandyCrushGame.MAX_ITERATION; k++) {
+                LevelManager fresh = new LevelManager(new Level.Builder(0, 20)
+                        .fillBoard(manager.getLevel().getBoardState())
+                        .build());
+
+                boolean popped = manager.popAllMarked();
+                Assert.assertEquals(fresh.popAllMarked(), popped);
+                Assert.assertEquals(fresh.getLevel().getBoardState(), manager.getLevel().getBoardState());
+
+                if (!popped) {
+                    break;
+                }
+                manager.applyGravity();
+            }
+        }
+    }
+
     /**
      * Test of applyGravity method, of class LevelManager.
      */
@@ -270,5 +524,88 @@ public class LevelManagerTest {
         manager.setLevel(builder.fillBoard(CHAIN_REACTION_LEVEL.replace("OOO", "EEE")).build());
         sum = manager.applyGravity();
         Assert.assertEquals(3 / 3 * 3 * 60, sum);
+
+        manager.setLevel(builder.fillBoard(CHAIN_REACTION_LEVEL.replace("OOO", "EEE")).build());
+        manager.setRefillSource(() -> (byte) CandyState.YELLOW.ordinal());
+        manager.applyGravity();
+        Assert.assertEquals("xYYBx;YRGRG;RBxPO;GBBRB;xBGPx", manager.getLevel().getBoardState());
+    }
+
+    /**
+     * Benchmark of the allocations of a cascade step, of class LevelManager.
+     */
+    @Test
+    public void testCascadeStepAllocation() {
+        LOGGER.info("- Testing the allocations of a cascade step");
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            LOGGER.warn("Allocation counters are not supported, skipping");
+            return;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        long thread = Thread.currentThread().getId();
+
+        manager.setLevel(new Level.Builder(0, 20).fillBoard().build());
+        for (int i = 0; i < 10000; i++) {
+            cascadeStep();
+        }
+
+        // the steps do not log at any level, so the result does not depend on the binding of the
+        // logger, and a late compilation may allocate once, so the best of a few rounds is measured
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 3 && allocated > 0; round++) {
+            long overhead = threadBean.getThreadAllocatedBytes(thread);
+            long before = threadBean.getThreadAllocatedBytes(thread);
+            overhead = before - overhead;
+
+            for (int i = 0; i < 1000; i++) {
+                cascadeStep();
+            }
+            allocated = threadBean.getThreadAllocatedBytes(thread) - before - overhead;
+        }
+
+        LOGGER.info("  Allocated {} bytes in 1000 cascade steps", allocated);
+        Assert.assertEquals(0, allocated);
+    }
+
+    private void cascadeStep() {
+        manager.getLevel().setCell(0, 0, (byte) CandyState.EMPTY.ordinal());
+        manager.popAllMarked();
+        manager.applyGravity();
+    }
+
+    /**
+     * Test of the bitboard engine, of class LevelManager.
+     */
+    @Test
+    public void testBitBoardEngine() {
+        LOGGER.info("- Testing the bitboard engine");
+
+        String[] templates = {
+            ALL_EMPTY_LEVEL, NO_MATCH_LEVEL, INLINE_ROW_MATCH_FIRST_LEVEL,
+            BOX_COL_MATCH_FIRST_LEVEL, CHAIN_REACTION_LEVEL
+        };
+        LevelManager bitBoardManager = new LevelManager();
+
+        for (String template : templates) {
+            manager.setLevel(builder.fillBoard(template).build());
+            bitBoardManager.setLevel(new Level.Builder(0, BOARD_SIZE)
+                    .withBitBoardEngine()
+                    .fillBoard(template)
+                    .build());
+
+            Assert.assertEquals(manager.popAllMarked(), bitBoardManager.popAllMarked());
+            Assert.assertEquals(manager.getLevel().getBoardState(),
+                    bitBoardManager.getLevel().getBoardState());
+            Assert.assertEquals(manager.applyGravity(), bitBoardManager.applyGravity());
+        }
+
+        bitBoardManager.setLevel(new Level.Builder(0, BOARD_SIZE)
+                .withBitBoardEngine()
+                .fillBoard(CHAIN_REACTION_LEVEL)
+                .build());
+        Assert.assertTrue(bitBoardManager.process() >= 2);
+        Assert.assertEquals("", bitBoardManager.getLevel().getBoardState().replaceAll("[^E]", ""));
     }
 }
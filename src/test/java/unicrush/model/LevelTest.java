@@ -109,4 +109,142 @@ public class LevelTest {
         Assert.assertNull(Level.createCoordinates("012345"));
         Assert.assertNull(Level.createCoordinates(null));
     }
+
+    /**
+     * Test of fillBoard method with a seed, of class Level.Builder.
+     */
+    @Test
+    public void testFillBoardWithSeed() {
+        LOGGER.info("- Testing method fillBoard with a seed");
+
+        Level.Builder builder = new Level.Builder(0, 5).putWalls(new Integer[][]{{0, 0}});
+        Level first = builder.fillBoard(42L).build();
+        Level second = builder.fillBoard(42L).build();
+
+        Assert.assertEquals(Level.WALL, first.getCell(0, 0));
+        Assert.assertEquals(first.getBoardState(), second.getBoardState());
+        Assert.assertFalse(first.getBoardState().contains("E"));
+    }
+
+    /**
+     * Test of fillBoard method with a source, of class Level.Builder.
+     */
+    @Test
+    public void testFillBoardWithSource() {
+        LOGGER.info("- Testing method fillBoard with a source");
+
+        Level level = new Level.Builder(0, 3)
+                .putWalls(new Integer[][]{{1, 1}})
+                .fillBoard(() -> (byte) CandyState.BLUE.ordinal())
+                .build();
+
+        Assert.assertEquals("BBB;BxB;BBB", level.getBoardState());
+    }
+
+    /**
+     * Test of getZobristHash method, of class Level.
+     */
+    @Test
+    public void testGetZobristHash() {
+        LOGGER.info("- Testing method getZobristHash");
+
+        Level.Builder builder = new Level.Builder(0, 40);
+        Level first = builder.fillBoard(42L).build();
+        Level second = new Level.Builder(1, 40).fillBoard(first.getBoardState()).build();
+        long hash = first.getZobristHash();
+
+        Assert.assertEquals(hash, second.getZobristHash());
+        Assert.assertNotEquals(hash, builder.fillBoard(43L).build().getZobristHash());
+
+        byte code = first.getCell(39, 39);
+        first.setCell(39, 39, (byte) CandyState.EMPTY.ordinal());
+        Assert.assertNotEquals(hash, first.getZobristHash());
+
+        first.transpose();
+        first.setCell(39, 39, code);
+        Assert.assertEquals(hash, first.getZobristHash());
+
+        first.setCells(builder.fillBoard(43L).build().getCells());
+        Assert.assertNotEquals(hash, first.getZobristHash());
+        first.setCells(second.getCells());
+        Assert.assertEquals(hash, first.getZobristHash());
+    }
+
+    /**
+     * Test of getCell and setCell methods, of class Level.
+     */
+    @Test
+    public void testGetCellAndSetCell() {
+        LOGGER.info("- Testing methods getCell and setCell");
+
+        Level cellLevel = new Level.Builder(0, 3)
+                .fillBoard("xRG;BOP;YEx")
+                .build();
+
+        Assert.assertEquals(Level.WALL, cellLevel.getCell(0, 0));
+        Assert.assertEquals(CandyState.RED.ordinal(), cellLevel.getCell(0, 1));
+        Assert.assertEquals(CandyState.EMPTY.ordinal(), cellLevel.getCell(2, 1));
+        Assert.assertEquals(Level.WALL, cellLevel.getCell(-1, 0));
+        Assert.assertEquals(Level.WALL, cellLevel.getCell(0, 3));
+        Assert.assertNull(cellLevel.get(3, 0));
+
+        cellLevel.setCell(0, 1, (byte) CandyState.YELLOW.ordinal());
+        Assert.assertEquals(CandyState.YELLOW, cellLevel.get(0, 1).getState());
+
+        cellLevel.transpose();
+        Assert.assertEquals(CandyState.BLUE.ordinal(), cellLevel.getCell(0, 1));
+        cellLevel.set(0, 1, Candy.of(CandyState.GREEN));
+        cellLevel.transpose();
+        Assert.assertEquals("xYG;GOP;YEx", cellLevel.getBoardState());
+    }
+
+    /**
+     * Test of setCell method with incorrect indexes, of class Level.
+     */
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testSetCellOutOfBounds() {
+        LOGGER.info("- Testing method setCell with incorrect indexes");
+
+        new Level.Builder(0, 3).fillBoard().build().setCell(0, 3, Level.WALL);
+    }
+
+    /**
+     * Test of the LevelDefinition of the levels, of class Level.
+     */
+    @Test
+    public void testGetDefinition() {
+        LOGGER.info("- Testing method getDefinition");
+
+        Level level = new Level.Builder(3, 5)
+                .withCompleteScore(1000)
+                .withAvailableSteps(20)
+                .putWalls(new Integer[][]{{0, 0}, {2, 2}})
+                .fillBoard(42L)
+                .build();
+        LevelDefinition definition = level.getDefinition();
+        Level same = definition.newLevel(42L);
+        Level other = definition.newLevel(43L);
+
+        Assert.assertSame(definition, same.getDefinition());
+        Assert.assertEquals(level, same);
+        Assert.assertEquals(level.getBoardState(), same.getBoardState());
+        Assert.assertEquals(level.getZobristHash(), same.getZobristHash());
+        Assert.assertEquals(Level.WALL, other.getCell(2, 2));
+        Assert.assertTrue(definition.isWall(12));
+        Assert.assertFalse(definition.isWall(13));
+
+        // the boards of the levels are independent
+        other.setCell(1, 1, (byte) CandyState.EMPTY.ordinal());
+        Assert.assertEquals(level.getInitialState(), definition.newLevel().getBoardState());
+        Assert.assertNotSame(level.getCells(), definition.newLevel().getCells());
+        Assert.assertEquals(1000, other.getScoreToComplete());
+        Assert.assertEquals(20, other.getAvailableSteps());
+        Assert.assertEquals(3, other.getID());
+
+        // the walls of the definition cannot be changed through the getter
+        Integer[][] walls = definition.getWalls();
+        walls[1][0] = 0;
+        Assert.assertEquals(Integer.valueOf(2), definition.getWalls()[1][0]);
+        Assert.assertEquals(definition, other.getDefinition());
+    }
 }
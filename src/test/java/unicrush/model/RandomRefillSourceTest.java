@@ -0,0 +1,87 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.RandomRefillSource}.
+ *
+ * @author Szalontai Jordán
+ */
+public class RandomRefillSourceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RandomRefillSourceTest.class);
+
+    public RandomRefillSourceTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class RandomRefillSource");
+    }
+
+    /**
+     * Test of next method, of class RandomRefillSource.
+     */
+    @Test
+    public void testNext() {
+        LOGGER.info("- Testing method next");
+
+        RandomRefillSource first = new RandomRefillSource(42L);
+        RandomRefillSource second = new RandomRefillSource(first.getSeed());
+
+        for (int i = 0; i < 1000; i++) {
+            byte code = first.next();
+
+            Assert.assertTrue(code > CandyState.EMPTY.ordinal());
+            Assert.assertTrue(code < CandyState.values().length);
+            Assert.assertEquals(code, second.next());
+        }
+    }
+
+    /**
+     * Test of a manager refilling the board with a seeded source.
+     */
+    @Test
+    public void testSeededManager() {
+        LOGGER.info("- Testing a manager with a seeded source");
+
+        Level.Builder builder = new Level.Builder(0, 5)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(Level.createCoordinates("0,0;4,0;0,4;4,4;2,2"));
+
+        LevelManager first = new LevelManager(builder.fillBoard(LevelManagerTest.CHAIN_REACTION_LEVEL)
+                .build(), new RandomRefillSource(7L));
+        LevelManager second = new LevelManager(builder.fillBoard(LevelManagerTest.CHAIN_REACTION_LEVEL)
+                .build(), new RandomRefillSource(7L));
+
+        Assert.assertEquals(first.processWithState(), second.processWithState());
+        Assert.assertEquals(first.getSum(), second.getSum());
+    }
+}
@@ -0,0 +1,82 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * Test class for {@code unicrush.model.Replay}.
+ *
+ * @author Szalontai Jordán
+ */
+public class ReplayTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayTest.class);
+    private static final String REPLAY
+            = "level 3\n"
+            + "seed -4962768465676381896\n"
+            + "board " + LevelManagerTest.CHAIN_REACTION_LEVEL + "\n"
+            + "swap 3,2;3,3\n"
+            + "shuffle\n"
+            + "swap 1,0;2,0";
+
+    public ReplayTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class Replay");
+    }
+
+    /**
+     * Test of parse method, of class Replay.
+     */
+    @Test
+    public void testParse() {
+        LOGGER.info("- Testing method parse");
+
+        Replay replay = Replay.parse(REPLAY);
+
+        Assert.assertEquals(3, replay.getLevelId());
+        Assert.assertEquals(-4962768465676381896L, replay.getSeed());
+        Assert.assertEquals(BoardSnapshot.parse(LevelManagerTest.CHAIN_REACTION_LEVEL),
+                replay.getInitialBoard());
+        Assert.assertEquals(Arrays.asList("3,2;3,3", Replay.SHUFFLE, "1,0;2,0"), replay.getEvents());
+        Assert.assertEquals(REPLAY, replay.toString());
+        Assert.assertEquals(replay, Replay.parse(replay.toString()));
+    }
+
+    /**
+     * Test of parse method with a malformed replay, of class Replay.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMalformed() {
+        LOGGER.info("- Testing method parse with a malformed replay");
+
+        Replay.parse(REPLAY.replace("swap 1,0;2,0", "jump 1,0"));
+    }
+}
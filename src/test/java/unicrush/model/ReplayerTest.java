@@ -0,0 +1,113 @@
+package unicrush.model;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * Test class for {@code unicrush.model.Replayer}.
+ *
+ * @author Szalontai Jordán
+ */
+public class ReplayerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayerTest.class);
+    private static final int BOARD_SIZE = 8;
+    private static final int MOVES = 30;
+
+    public ReplayerTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class Replayer");
+    }
+
+    /**
+     * Test of replay method, of class Replayer.
+     */
+    @Test
+    public void testReplay() {
+        LOGGER.info("- Testing method replay");
+
+        for (long seed = 0; seed < 20; seed++) {
+            CandyCrushGame game = playGame(seed);
+            Replay replay = game.getReplay();
+            CandyCrushGame replayed = Replayer.replay(Replay.parse(replay.toString()));
+
+            Assert.assertEquals(game.getPlayerScore(), replayed.getPlayerScore());
+            Assert.assertEquals(game.getCurrentLevel().getSnapshot(),
+                    replayed.getCurrentLevel().getSnapshot());
+            Assert.assertEquals(replay, replayed.getReplay());
+        }
+    }
+
+    /**
+     * Benchmark of the replay method, of class Replayer.
+     */
+    @Test
+    public void testReplaySpeed() {
+        LOGGER.info("- Testing the speed of method replay");
+
+        Replay replay = playGame(42L).getReplay();
+        int replays = 1000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < replays; i++) {
+            Replayer.replay(replay);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LOGGER.info("  {} replays of {} events in {} ms", replays, replay.getEvents().size(),
+                elapsed / 1000000);
+    }
+
+    private static CandyCrushGame playGame(long seed) {
+        Level level = new Level.Builder((int) seed, BOARD_SIZE)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(Integer.MAX_VALUE)
+                .putWalls(Level.createCoordinates("0,0;0,7;7,0;7,7"))
+                .fillBoard(seed)
+                .build();
+
+        CandyCrushGame game = new CandyCrushGame();
+        game.getLevels().add(level);
+        game.startLevel(level, new RandomRefillSource(seed));
+
+        for (int i = 0; i < MOVES; i++) {
+            List<Move> moves = game.getManager().findBestMoves(1);
+
+            if (moves.isEmpty()) {
+                game.shuffle();
+            } else {
+                game.play(moves.get(0).toCoordinates());
+            }
+        }
+        game.play(Level.createCoordinates("1,1;1,3"));
+        return game;
+    }
+}
@@ -29,6 +29,7 @@ import org.junit.Test;
 import org.junit.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import unicrush.model.db.LeaderboardEntry;
 import unicrush.model.db.ScoreEntity;
 
 /**
@@ -170,4 +171,26 @@ public class ValidatorTest {
         Assert.assertTrue(validator.isNewHighScore(null, 101));
         Assert.assertFalse(validator.isNewHighScore(new ScoreEntity(0, 0, 100), 0));
     }
+
+    /**
+     * Test of isNewHighScore method with a leaderboard, of class Validator.
+     */
+    @Test
+    public void testIsNewHighScoreLeaderboard() {
+        LOGGER.info("- Testing method isNewHighScore with a leaderboard");
+
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        leaderboard.add(new LeaderboardEntry("first", 1, 0, 500));
+        leaderboard.add(new LeaderboardEntry("second", 2, 0, 300));
+
+        // the user is on the leaderboard
+        Assert.assertTrue(validator.isNewHighScore(leaderboard, 2, 2, 301));
+        Assert.assertFalse(validator.isNewHighScore(leaderboard, 2, 2, 300));
+        // the leaderboard is full, so the previous score is at most the last one
+        Assert.assertTrue(validator.isNewHighScore(leaderboard, 2, 3, 301));
+        Assert.assertFalse(validator.isNewHighScore(leaderboard, 2, 3, 300));
+        // the leaderboard is not full, so the user has no previous score
+        Assert.assertFalse(validator.isNewHighScore(leaderboard, 3, 3, 1000));
+        Assert.assertFalse(validator.isNewHighScore(new ArrayList<>(), 0, 3, 1000));
+    }
 }
@@ -0,0 +1,90 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.db.LeaderboardEntry}.
+ *
+ * @author Szalontai Jordán
+ */
+public class LeaderboardEntryTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeaderboardEntryTest.class);
+
+    private static List<LeaderboardEntry> leaderboard;
+
+    public LeaderboardEntryTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class LeaderboardEntry");
+
+        leaderboard = Arrays.asList(entry(1, 500), entry(2, 300), entry(4, 300));
+    }
+
+    /**
+     * Test of withEntry method, of class LeaderboardEntry.
+     */
+    @Test
+    public void testWithEntry() {
+        LOGGER.info("- Testing method withEntry");
+
+        // a new user, placed by the score and then by the id of the user
+        Assert.assertEquals("[1, 2, 3, 4]", userIds(LeaderboardEntry.withEntry(leaderboard,
+                entry(3, 300), 10)));
+        Assert.assertEquals("[1, 2, 3]", userIds(LeaderboardEntry.withEntry(leaderboard,
+                entry(3, 300), 3)));
+        Assert.assertEquals("[1, 2, 4]", userIds(LeaderboardEntry.withEntry(leaderboard,
+                entry(5, 300), 3)));
+
+        // a user on the leaderboard keeps the better of the two scores
+        List<LeaderboardEntry> better = LeaderboardEntry.withEntry(leaderboard, entry(4, 600), 3);
+        Assert.assertEquals("[4, 1, 2]", userIds(better));
+        Assert.assertEquals(600, better.get(0).getScore());
+
+        List<LeaderboardEntry> worse = LeaderboardEntry.withEntry(leaderboard, entry(1, 100), 3);
+        Assert.assertEquals("[1, 2, 4]", userIds(worse));
+        Assert.assertEquals(500, worse.get(0).getScore());
+
+        Assert.assertEquals("[1]", userIds(LeaderboardEntry.withEntry(Arrays.asList(), entry(1, 0),
+                3)));
+    }
+
+    private static LeaderboardEntry entry(int userId, int score) {
+        return new LeaderboardEntry("user" + userId, userId, 1, score);
+    }
+
+    private static String userIds(List<LeaderboardEntry> entries) {
+        int[] ids = entries.stream().mapToInt(LeaderboardEntry::getUserId).toArray();
+        return Arrays.toString(ids);
+    }
+}
@@ -0,0 +1,237 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.db.ScoreDAOSimple}.
+ *
+ * <p>
+ * The queries run on an in-memory H2 database, the schema is generated from the entities, with
+ * the index of the leaderboard queries.</p>
+ *
+ * @author Szalontai Jordán
+ */
+public class ScoreDAOSimpleTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScoreDAOSimpleTest.class);
+
+    private static EntityManagerFactory factory;
+    private static ScoreDAO scoreDao;
+
+    public ScoreDAOSimpleTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class ScoreDAOSimple");
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:unicrush;DB_CLOSE_DELAY=-1");
+        properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("javax.persistence.jdbc.user", "sa");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.connection.provider_class",
+                "org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl");
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.cache.use_query_cache", "false");
+        properties.put("hibernate.generate_statistics", "true");
+
+        factory = Persistence.createEntityManagerFactory("UNICRUSH", properties);
+        scoreDao = new ScoreDAOSimple(factory);
+
+        UnitOfWork.write(factory, em -> {
+            for (int id = 1; id <= 7; id++) {
+                em.persist(new UserEntity(id, "user" + id));
+            }
+        });
+
+        Map<ScoreKey, Integer> scores = new HashMap<>();
+        scores.put(new ScoreKey(1, 1), 500);
+        scores.put(new ScoreKey(2, 1), 900);
+        scores.put(new ScoreKey(3, 1), 500);
+        scores.put(new ScoreKey(4, 1), 700);
+        scores.put(new ScoreKey(5, 1), 500);
+        scores.put(new ScoreKey(6, 1), 100);
+        scores.put(new ScoreKey(7, 1), Integer.MAX_VALUE);
+        scores.put(new ScoreKey(1, 2), 1000);
+        scoreDao.saveBest(scores);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        factory.close();
+    }
+
+    /**
+     * Test of saveBest method, of class ScoreDAOSimple.
+     */
+    @Test
+    public void testSaveBest() {
+        LOGGER.info("- Testing method saveBest");
+
+        Map<ScoreKey, Integer> scores = new HashMap<>();
+        scores.put(new ScoreKey(1, 3), 300);
+        scoreDao.saveBest(scores);
+
+        // a lower score does not overwrite the saved one, a higher one does
+        scores.put(new ScoreKey(1, 3), 200);
+        scores.put(new ScoreKey(2, 3), 400);
+        scoreDao.saveBest(scores);
+        Assert.assertEquals(300, scoreDao.find(1, 3).getScore());
+        Assert.assertEquals(400, scoreDao.find(2, 3).getScore());
+
+        scores.put(new ScoreKey(1, 3), 600);
+        scoreDao.saveBest(scores);
+        Assert.assertEquals(600, scoreDao.find(1, 3).getScore());
+    }
+
+    /**
+     * Test of saveBest method with many keys, of class ScoreDAOSimple.
+     */
+    @Test
+    public void testSaveBestMany() {
+        LOGGER.info("- Testing method saveBest with many keys");
+
+        // more keys than fit into one query, on the levels 10 to 39
+        Map<ScoreKey, Integer> scores = new HashMap<>();
+        for (int userId = 1; userId <= 7; userId++) {
+            for (int levelId = 10; levelId < 40; levelId++) {
+                scores.put(new ScoreKey(userId, levelId), userId * levelId);
+            }
+        }
+        scoreDao.saveBest(scores);
+
+        scores.replaceAll((key, score) -> key.levelId % 2 == 0 ? score + 1 : score - 1);
+        scoreDao.saveBest(scores);
+        Assert.assertEquals(7 * 38 + 1, scoreDao.find(7, 38).getScore());
+        Assert.assertEquals(7 * 39, scoreDao.find(7, 39).getScore());
+        Assert.assertEquals(10 + 1, scoreDao.find(1, 10).getScore());
+    }
+
+    /**
+     * Test of saveBest method loading only the rows of the keys, of class ScoreDAOSimple.
+     */
+    @Test
+    public void testSaveBestLoadsKeys() {
+        LOGGER.info("- Testing method saveBest loading only the rows of the keys");
+
+        Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        Map<ScoreKey, Integer> scores = new HashMap<>();
+        // the rows 1,1 and 2,2 are in the cross product of the keys, but not among the keys
+        scores.put(new ScoreKey(1, 2), 0);
+        scores.put(new ScoreKey(2, 1), 0);
+
+        long loaded = statistics.getEntityLoadCount();
+        scoreDao.saveBest(scores);
+        Assert.assertEquals(2, statistics.getEntityLoadCount() - loaded);
+    }
+
+    /**
+     * Test of findTopScores method, of class ScoreDAOSimple.
+     */
+    @Test
+    public void testFindTopScores() {
+        LOGGER.info("- Testing method findTopScores");
+
+        List<LeaderboardEntry> top = scoreDao.findTopScores(1, 4);
+
+        // the ties are broken by the id of the user
+        Assert.assertEquals("[7, 2, 4, 1]", userIds(top));
+        Assert.assertEquals("user7", top.get(0).getUsername());
+        Assert.assertEquals(Integer.MAX_VALUE, top.get(0).getScore());
+        Assert.assertEquals(1, top.get(3).getLevelId());
+        Assert.assertEquals(500, top.get(3).getScore());
+
+        Assert.assertEquals("[1]", userIds(scoreDao.findTopScores(2, 4)));
+        Assert.assertTrue(scoreDao.findTopScores(42, 4).isEmpty());
+    }
+
+    /**
+     * Test of findTopScores method with an invalid k, of class ScoreDAOSimple.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindTopScoresInvalid() {
+        LOGGER.info("- Testing method findTopScores with an invalid k");
+
+        scoreDao.findTopScores(1, 0);
+    }
+
+    /**
+     * Test of findScoresAfter method, of class ScoreDAOSimple.
+     */
+    @Test
+    public void testFindScoresAfter() {
+        LOGGER.info("- Testing method findScoresAfter");
+
+        List<LeaderboardEntry> pages = new ArrayList<>();
+        List<LeaderboardEntry> page = scoreDao.findTopScores(1, 2);
+        int count = 0;
+
+        while (!page.isEmpty()) {
+            pages.addAll(page);
+            page = scoreDao.findScoresAfter(1, page.get(page.size() - 1), 2);
+            count++;
+        }
+
+        // a page boundary falls between the users with the same score
+        Assert.assertEquals(4, count);
+        Assert.assertEquals("[7, 2, 4, 1, 3, 5, 6]", userIds(pages));
+        Assert.assertEquals(userIds(scoreDao.findTopScores(1, 100)), userIds(pages));
+        Assert.assertEquals("[3, 5]", userIds(scoreDao.findScoresAfter(1, pages.get(3), 2)));
+    }
+
+    /**
+     * Test of findScoresAfter method with no last entry, of class ScoreDAOSimple.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindScoresAfterInvalid() {
+        LOGGER.info("- Testing method findScoresAfter with no last entry");
+
+        scoreDao.findScoresAfter(1, null, 10);
+    }
+
+    private static String userIds(List<LeaderboardEntry> entries) {
+        return entries.stream()
+                .map(LeaderboardEntry::getUserId)
+                .collect(Collectors.toList())
+                .toString();
+    }
+}
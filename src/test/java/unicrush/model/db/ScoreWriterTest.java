@@ -0,0 +1,250 @@
+package unicrush.model.db;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test class for {@code unicrush.model.db.ScoreWriter}.
+ *
+ * @author Szalontai Jordán
+ */
+public class ScoreWriterTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScoreWriterTest.class);
+
+    public ScoreWriterTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class ScoreWriter");
+    }
+
+    /**
+     * Test of submit and flush methods, of class ScoreWriter.
+     */
+    @Test
+    public void testSubmitAndFlush() {
+        LOGGER.info("- Testing methods submit and flush");
+
+        MemoryScoreDAO dao = new MemoryScoreDAO();
+
+        try (ScoreWriter writer = new ScoreWriter(dao, 60000, 100)) {
+            writer.submit(1, 1, 300);
+            writer.submit(1, 1, 900);
+            writer.submit(1, 1, 600);
+            writer.submit(2, 1, 120);
+            Assert.assertEquals(2, writer.getPendingCount());
+
+            writer.flush().join();
+            Assert.assertEquals(0, writer.getPendingCount());
+            Assert.assertEquals(1, dao.batches.size());
+            Assert.assertEquals(900, dao.find(1, 1).getScore());
+            Assert.assertEquals(120, dao.find(2, 1).getScore());
+
+            // a lower score does not overwrite the saved one
+            writer.submit(1, 1, 60);
+            writer.flush().join();
+            Assert.assertEquals(900, dao.find(1, 1).getScore());
+        }
+    }
+
+    /**
+     * Test of the flush of a full batch, of class ScoreWriter.
+     */
+    @Test
+    public void testBatchSize() throws Exception {
+        LOGGER.info("- Testing the flush of a full batch");
+
+        MemoryScoreDAO dao = new MemoryScoreDAO();
+
+        try (ScoreWriter writer = new ScoreWriter(dao, 60000, 3)) {
+            for (int user = 0; user < 3; user++) {
+                writer.submit(user, 1, 100);
+            }
+            for (int i = 0; i < 100 && dao.findAll().size() < 3; i++) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(3, dao.findAll().size());
+        }
+    }
+
+    /**
+     * Test of the retry after a failed flush, of class ScoreWriter.
+     */
+    @Test
+    public void testFailedFlush() {
+        LOGGER.info("- Testing the retry after a failed flush");
+
+        MemoryScoreDAO dao = new MemoryScoreDAO();
+        dao.failures = 1;
+
+        try (ScoreWriter writer = new ScoreWriter(dao, 60000, 100)) {
+            writer.submit(1, 1, 300);
+            try {
+                writer.flush().join();
+                Assert.fail("The failed flush completed normally");
+            } catch (CompletionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+            }
+            Assert.assertEquals(1, writer.getPendingCount());
+
+            writer.submit(1, 1, 200);
+            writer.flush().join();
+            Assert.assertEquals(0, writer.getPendingCount());
+            Assert.assertEquals(300, dao.find(1, 1).getScore());
+        }
+    }
+
+    /**
+     * Test of the scores that run out of attempts, of class ScoreWriter.
+     */
+    @Test
+    public void testMaxAttempts() {
+        LOGGER.info("- Testing the scores that run out of attempts");
+
+        MemoryScoreDAO dao = new MemoryScoreDAO();
+        dao.failures = Integer.MAX_VALUE;
+
+        try (ScoreWriter writer = new ScoreWriter(dao, 60000, 100, 2)) {
+            writer.submit(1, 1, 300);
+            writer.flush().handle((result, ex) -> null).join();
+            Assert.assertEquals(1, writer.getPendingCount());
+
+            writer.flush().handle((result, ex) -> null).join();
+            Assert.assertEquals(0, writer.getPendingCount());
+            Assert.assertEquals(Integer.valueOf(300),
+                    writer.getFailedScores().get(new ScoreKey(1, 1)));
+
+            // the failed score is not retried
+            dao.failures = 0;
+            writer.flush().join();
+            Assert.assertNull(dao.find(1, 1));
+        }
+    }
+
+    /**
+     * Test of the submit and flush methods of a closed writer, of class ScoreWriter.
+     */
+    @Test
+    public void testClosed() {
+        LOGGER.info("- Testing methods submit and flush of a closed writer");
+
+        MemoryScoreDAO dao = new MemoryScoreDAO();
+        ScoreWriter writer = new ScoreWriter(dao, 60000, 100);
+
+        writer.submit(1, 1, 300);
+        writer.close();
+        Assert.assertEquals(300, dao.find(1, 1).getScore());
+
+        try {
+            writer.submit(1, 1, 400);
+            Assert.fail("A closed writer accepted a score");
+        } catch (IllegalStateException ex) {
+            LOGGER.info("  Rejected: {}", ex.getMessage());
+        }
+        try {
+            writer.flush();
+            Assert.fail("A closed writer accepted a flush");
+        } catch (IllegalStateException ex) {
+            LOGGER.info("  Rejected: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test of the constructor with an invalid batch size, of class ScoreWriter.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        LOGGER.info("- Testing the constructor with an invalid batch size");
+
+        new ScoreWriter(new MemoryScoreDAO(), 1000, 0);
+    }
+
+    private static final class MemoryScoreDAO implements ScoreDAO {
+
+        private final Map<ScoreKey, ScoreEntity> scores = new HashMap<>();
+        private final List<Map<ScoreKey, Integer>> batches = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public synchronized void create(int userId, int levelId, int score) {
+            scores.put(new ScoreKey(userId, levelId), new ScoreEntity(userId, levelId, score));
+        }
+
+        @Override
+        public synchronized void update(int userId, int levelId, int score) {
+            ScoreEntity se = find(userId, levelId);
+            if (score > se.getScore()) {
+                se.setScore(score);
+            }
+        }
+
+        @Override
+        public synchronized void saveBest(Map<ScoreKey, Integer> batch) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Connection lost");
+            }
+            batches.add(batch);
+            batch.forEach((key, score) -> {
+                if (scores.containsKey(key)) {
+                    update(key.userId, key.levelId, score);
+                } else {
+                    create(key.userId, key.levelId, score);
+                }
+            });
+        }
+
+        @Override
+        public synchronized ScoreEntity find(int userId, int levelId) {
+            return scores.get(new ScoreKey(userId, levelId));
+        }
+
+        @Override
+        public synchronized List<ScoreEntity> findAll() {
+            return new ArrayList<>(scores.values());
+        }
+
+        @Override
+        public List<LeaderboardEntry> findTopScores(int levelId, int k) {
+            throw new UnsupportedOperationException("Not used by the writer");
+        }
+
+        @Override
+        public List<LeaderboardEntry> findScoresAfter(int levelId, LeaderboardEntry last,
+                int limit) {
+            throw new UnsupportedOperationException("Not used by the writer");
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package unicrush.model.host;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import unicrush.model.HintCache;
+import unicrush.model.Level;
+import unicrush.model.Move;
+import unicrush.model.Replay;
+import unicrush.model.Replayer;
+
+/**
+ * Test class for {@code unicrush.model.host.GameHost}.
+ *
+ * @author Szalontai Jordán
+ */
+public class GameHostTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameHostTest.class);
+    private static final int SESSIONS = 24;
+    private static final int MOVES = 8;
+
+    private static Level level;
+
+    public GameHostTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class GameHost");
+
+        level = new Level.Builder(7, 8)
+                .withCompleteScore(Integer.MAX_VALUE)
+                .withAvailableSteps(MOVES)
+                .putWalls(Level.createCoordinates("0,0;0,7;7,0;7,7;3,3;3,4"))
+                .fillBoard()
+                .build();
+    }
+
+    /**
+     * Test of playing many sessions in parallel, of class GameHost.
+     */
+    @Test
+    public void testSessions() {
+        LOGGER.info("- Testing the parallel sessions");
+
+        try (GameHost host = new GameHost(3)) {
+            List<Long> ids = new ArrayList<>();
+            List<Set<String>> threads = new ArrayList<>();
+
+            for (int i = 0; i < SESSIONS; i++) {
+                ids.add(host.openSession(level, i).join());
+                threads.add(new HashSet<>());
+            }
+            Assert.assertEquals(SESSIONS, host.getSessionCount());
+
+            List<CompletableFuture<Integer>> scores = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                Set<String> names = threads.get(i);
+                for (int k = 0; k < MOVES; k++) {
+                    host.submit(ids.get(i), session -> {
+                        names.add(Thread.currentThread().getName());
+                        return playBestMove(session);
+                    });
+                }
+                scores.add(host.submit(ids.get(i), GameSession::getScore));
+            }
+
+            for (int i = 0; i < SESSIONS; i++) {
+                int score = scores.get(i).join();
+                Replay replay = host.closeSession(ids.get(i)).join();
+
+                Assert.assertEquals(1, threads.get(i).size());
+                Assert.assertEquals(playAlone(i), score);
+                Assert.assertEquals(score, Replayer.replay(replay).getPlayerScore());
+            }
+            Assert.assertEquals(0, host.getSessionCount());
+        }
+    }
+
+    /**
+     * Test of the walls of the session boards, of class GameSession.
+     */
+    @Test
+    public void testSessionWalls() {
+        LOGGER.info("- Testing the walls of the session boards");
+
+        GameSession session = new GameSession(0, level.getDefinition(), 42L);
+        Level board = session.getGame().getCurrentLevel();
+
+        for (int i = 0; i < level.getBoardSize(); i++) {
+            for (int j = 0; j < level.getBoardSize(); j++) {
+                boolean wall = level.getCell(i, j) == Level.WALL;
+
+                Assert.assertEquals(wall, board.getCell(i, j) == Level.WALL);
+            }
+        }
+    }
+
+    /**
+     * Test of the seeds of the session boards, of class GameSession.
+     */
+    @Test
+    public void testSessionSeeds() {
+        LOGGER.info("- Testing the seeds of the session boards");
+
+        String first = new GameSession(0, level.getDefinition(), 1L).getBoard().toString();
+        String second = new GameSession(0, level.getDefinition(), 2L).getBoard().toString();
+        String again = new GameSession(0, level.getDefinition(), 1L).getBoard().toString();
+
+        Assert.assertNotEquals(first, second);
+        Assert.assertEquals(first, again);
+    }
+
+    /**
+     * Test of the hint caches of the workers, of class GameHost.
+     */
+    @Test
+    public void testHintCaches() {
+        LOGGER.info("- Testing the hint caches of the workers");
+
+        try (GameHost host = new GameHost(2)) {
+            List<HintCache> caches = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                long id = host.openSession(level, i).join();
+                caches.add(host.submit(id, session -> session.getGame().getManager().getHintCache())
+                        .join());
+            }
+
+            // the sessions 1 and 3 run on one worker, the sessions 2 and 4 on the other
+            Assert.assertSame(caches.get(0), caches.get(2));
+            Assert.assertSame(caches.get(1), caches.get(3));
+            Assert.assertNotSame(caches.get(0), caches.get(1));
+        }
+    }
+
+    /**
+     * Test of submitting a command to a closed session, of class GameHost.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testClosedSession() {
+        LOGGER.info("- Testing a closed session");
+
+        try (GameHost host = new GameHost(1)) {
+            long id = host.openSession(level, 42L).join();
+
+            host.closeSession(id);
+            host.hint(id);
+        }
+    }
+
+    /**
+     * Test of opening a session on its worker, of class GameHost.
+     */
+    @Test
+    public void testOpenSession() throws InterruptedException {
+        LOGGER.info("- Testing method openSession");
+
+        try (GameHost host = new GameHost(1)) {
+            long first = host.openSession(level, 1L).join();
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            host.submit(first, session -> {
+                running.countDown();
+                awaitQuietly(release);
+                return null;
+            });
+            running.await();
+
+            // the new session is created on the busy worker, not on this thread
+            CompletableFuture<Long> second = host.openSession(level, 2L);
+            Assert.assertFalse(second.isDone());
+            Assert.assertEquals(1, host.getSessionCount());
+
+            release.countDown();
+            Assert.assertNotEquals(first, second.join().longValue());
+            Assert.assertEquals(2, host.getSessionCount());
+        }
+    }
+
+    /**
+     * Test of the bounded queues of the workers, of class GameHost.
+     */
+    @Test
+    public void testFullQueue() throws InterruptedException {
+        LOGGER.info("- Testing a full queue of a worker");
+
+        try (GameHost host = new GameHost(1, 1)) {
+            long id = host.openSession(level, 42L).join();
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            CompletableFuture<Integer> blocking = host.submit(id, session -> {
+                running.countDown();
+                awaitQuietly(release);
+                return session.getScore();
+            });
+            running.await();
+            CompletableFuture<Integer> queued = host.submit(id, GameSession::getScore);
+            CompletableFuture<Integer> rejected = host.submit(id, GameSession::getScore);
+            CompletableFuture<Replay> closing = host.closeSession(id);
+
+            Assert.assertTrue(rejected.isCompletedExceptionally());
+            Assert.assertTrue(closing.isCompletedExceptionally());
+            Assert.assertEquals(1, host.getSessionCount());
+            try {
+                rejected.join();
+                Assert.fail("Expected a CompletionException");
+            } catch (CompletionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof RejectedExecutionException);
+            }
+
+            release.countDown();
+            Assert.assertEquals(blocking.join(), queued.join());
+            Assert.assertNotNull(host.closeSession(id).join());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int playAlone(long seed) {
+        GameSession session = new GameSession(0, level.getDefinition(), seed);
+
+        for (int k = 0; k < MOVES; k++) {
+            playBestMove(session);
+        }
+        return session.getScore();
+    }
+
+    private static MoveResult playBestMove(GameSession session) {
+        List<Move> moves = session.getGame().getManager().findBestMoves(1);
+
+        if (moves.isEmpty()) {
+            session.shuffle();
+            return null;
+        }
+        return session.play(moves.get(0).toCoordinates());
+    }
+}
@@ -0,0 +1,111 @@
+package unicrush.model.jfr;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import unicrush.model.CandyState;
+import unicrush.model.Level;
+import unicrush.model.LevelManager;
+/**
+ * Test class for {@code unicrush.model.jfr.PhaseRecorder}.
+ *
+ * @author Szalontai Jordán
+ */
+public class PhaseRecorderTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhaseRecorderTest.class);
+
+    public PhaseRecorderTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class PhaseRecorder");
+    }
+
+    /**
+     * Test of the events written by the recorders of a LevelManager.
+     */
+    @Test
+    public void testEvents() throws Exception {
+        LOGGER.info("- Testing the recorded events");
+
+        Assume.assumeTrue(PhaseRecorder.create() instanceof FlightPhaseRecorder);
+
+        Level level = new Level.Builder(7, 8).fillBoard(42L).build();
+        LevelManager manager = new LevelManager(level, () -> (byte) CandyState.GREEN.ordinal());
+        Path file = Files.createTempFile("unicrush", ".jfr");
+        Set<String> names = new HashSet<>();
+
+        try (Recording recording = new Recording()) {
+            for (EnginePhase phase : EnginePhase.values()) {
+                recording.enable(eventName(phase)).withoutThreshold();
+            }
+            recording.start();
+
+            manager.findMoveArea();
+            manager.swap(new Integer[][]{{0, 0}, {0, 1}});
+            manager.getLevel().setCell(0, 0, (byte) CandyState.EMPTY.ordinal());
+            manager.processWithSnapshots();
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            for (RecordedEvent event : events) {
+                names.add(event.getEventType().getName());
+                Assert.assertEquals(7, event.getInt("levelId"));
+                Assert.assertEquals(8, event.getInt("boardSize"));
+                Assert.assertTrue(event.getInt("iteration") >= 0);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        for (EnginePhase phase : EnginePhase.values()) {
+            Assert.assertTrue(eventName(phase), names.contains(eventName(phase)));
+        }
+    }
+
+    private static String eventName(EnginePhase phase) {
+        StringBuilder name = new StringBuilder("unicrush.");
+
+        for (String word : phase.name().split("_")) {
+            name.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+        }
+        return name.toString();
+    }
+}
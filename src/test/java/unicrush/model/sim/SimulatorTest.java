@@ -0,0 +1,124 @@
+package unicrush.model.sim;
+
+/*-
+ * #%L
+ * unicrush
+ * %%
+ * Copyright (C) 2018 Faculty of Informatics
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import unicrush.model.Level;
+import unicrush.model.LevelManager;
+import unicrush.model.Move;
+
+/**
+ * Test class for {@code unicrush.model.sim.Simulator}.
+ *
+ * @author Szalontai Jordán
+ */
+public class SimulatorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatorTest.class);
+    private static final int GAMES = 24;
+
+    private static Level level;
+
+    public SimulatorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        LOGGER.info("Testing class Simulator");
+
+        level = new Level.Builder(7, 8)
+                .withCompleteScore(3000)
+                .withAvailableSteps(10)
+                .putWalls(Level.createCoordinates("0,0;0,7;7,0;7,7;3,3;3,4"))
+                .fillBoard()
+                .build();
+    }
+
+    /**
+     * Test of simulate method, of class Simulator.
+     */
+    @Test
+    public void testSimulate() {
+        LOGGER.info("- Testing method simulate");
+
+        Simulator simulator = new Simulator();
+        MoveStrategy[] strategies = {new RandomStrategy(), new GreedyStrategy(), new LookaheadStrategy()};
+
+        for (MoveStrategy strategy : strategies) {
+            SimulationReport report = simulator.simulate(level, strategy, GAMES, 42L);
+            LOGGER.info("  {}", report);
+
+            Assert.assertEquals(GAMES, report.getGames());
+            Assert.assertTrue(report.getWins() <= GAMES);
+            Assert.assertTrue(report.getMoves() >= GAMES);
+            Assert.assertTrue(report.getScorePercentile(0) <= report.getScorePercentile(1));
+            Assert.assertArrayEquals(report.getScores(),
+                    simulator.simulate(level, strategy, GAMES, 42L).getScores());
+        }
+    }
+
+    /**
+     * Test of chooseMove method, of class LookaheadStrategy.
+     */
+    @Test
+    public void testLookaheadStrategy() {
+        LOGGER.info("- Testing method chooseMove of class LookaheadStrategy");
+
+        MoveStrategy strategy = new LookaheadStrategy();
+        Level[] levels = {level.getDefinition().newLevel(1L), level.getDefinition().newLevel(2L),
+            new Level.Builder(8, 5).fillBoard("RRGRR;GBRPB;BOPGO;OPGBP;PGBOG").build()};
+
+        for (Level board : levels) {
+            String before = board.getBoardState();
+            LevelManager manager = new LevelManager(board);
+            Move move = strategy.chooseMove(manager, new SplittableRandom(42L));
+
+            Assert.assertNotNull(move);
+            Assert.assertTrue(manager.findAllMoves().contains(move));
+            Assert.assertEquals(before, board.getBoardState());
+        }
+    }
+
+    /**
+     * Test of the statistics of class SimulationReport.
+     */
+    @Test
+    public void testSimulationReport() {
+        LOGGER.info("- Testing the statistics of class SimulationReport");
+
+        SimulationReport report = new SimulationReport(7, "test", 1, new int[]{300, 100, 200, 400},
+                40, 1000000000L);
+
+        Assert.assertEquals(0.25, report.getWinRate(), 0.001);
+        Assert.assertEquals(100, report.getScorePercentile(0));
+        Assert.assertEquals(200, report.getScorePercentile(0.5));
+        Assert.assertEquals(400, report.getScorePercentile(0.9));
+        Assert.assertEquals(250, report.getMeanScore(), 0.001);
+        Assert.assertEquals(40, report.getMovesPerSecond(), 0.001);
+    }
+}